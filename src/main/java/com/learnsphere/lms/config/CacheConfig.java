@@ -0,0 +1,47 @@
+package com.learnsphere.lms.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Cache Configuration
+ * In-memory Caffeine caches for the course catalog, held on every node
+ *
+ * Writes through CourseService evict the affected entries on the node that
+ * handled them; other nodes pick up the change when their entries expire, so
+ * the TTL is the staleness window. Puts and evictions made inside a
+ * transaction are held back until it commits, so a concurrent read cannot
+ * cache the old row again in between. Hit and miss counts are published as
+ * cache.gets metrics through the actuator.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /** Single courses keyed by id */
+    public static final String COURSES = "courses";
+
+    /** Whole-catalog listings keyed by view */
+    public static final String COURSE_CATALOG = "courseCatalog";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${cache.courses.ttl:10m}") Duration ttl,
+            @Value("${cache.courses.max-size:10000}") long maxSize) {
+        // Naming the caches up front makes them known at startup, so their metrics get registered
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(COURSES, COURSE_CATALOG);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats());
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,40 @@
+package com.learnsphere.lms.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Database Concurrency Limit
+ * Wraps the pooled DataSource in a ConcurrencyLimitedDataSource when
+ * db.concurrency-limit.enabled is true (the virtual profile turns it on)
+ *
+ * The limit is sized separately from the Hikari pool and from request
+ * concurrency, so a flood of virtual-thread requests queues on the semaphore
+ * instead of on the pool.
+ */
+@Configuration
+@ConditionalOnProperty(name = "db.concurrency-limit.enabled", havingValue = "true")
+public class DatabaseConcurrencyConfig {
+
+    @Bean
+    public static BeanPostProcessor concurrencyLimitedDataSourcePostProcessor(Environment environment) {
+        int maxConcurrency = environment.getProperty("db.concurrency-limit.permits", Integer.class, 10);
+        Duration acquireTimeout = environment.getProperty("db.concurrency-limit.acquire-timeout",
+                Duration.class, Duration.ofSeconds(30));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConcurrencyLimitedDataSource)) {
+                    return new ConcurrencyLimitedDataSource(dataSource, maxConcurrency, acquireTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -5,6 +5,8 @@ import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
+
 /**
  * Environment Configuration Validator
  * Validates required environment variables on application startup
@@ -38,7 +40,7 @@ public class EnvironmentValidator {
         System.out.println("Active Profile: " + activeProfile);
 
         // Production profile requires all environment variables
-        if ("prod".equals(activeProfile)) {
+        if (Arrays.asList(activeProfile.split("\\s*,\\s*")).contains("prod")) {
             validateProductionEnvironment();
         } else {
             validateDevelopmentEnvironment();
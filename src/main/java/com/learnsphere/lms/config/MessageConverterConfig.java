@@ -0,0 +1,33 @@
+package com.learnsphere.lms.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Binary API Encodings
+ * Adds CBOR (application/cbor) and Smile (application/x-jackson-smile) next
+ * to JSON, for request and response bodies alike
+ *
+ * A client gets a binary encoding only by asking for it in Accept; browsers
+ * sending a wildcard Accept keep getting JSON, which stays first in converter
+ * order. Both mappers come from Spring Boot's Jackson builder, so property
+ * names, date handling and @JsonIgnore rules are the same as for JSON.
+ */
+@Configuration
+public class MessageConverterConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
@@ -0,0 +1,81 @@
+package com.learnsphere.lms.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read Replica Routing
+ * Replaces the auto-configured DataSource with a ReplicaRoutingDataSource
+ * when db.replica.enabled is true
+ *
+ * The primary pool is built from spring.datasource.*; each URL in
+ * db.replica.urls gets its own read-only pool with the same
+ * spring.datasource.hikari.* settings, overridable under db.replica.hikari.*.
+ * The pools are not beans of their own, so the rest of the application (JPA,
+ * the concurrency limit) sees exactly one DataSource.
+ */
+@Configuration
+@ConditionalOnProperty(name = "db.replica.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    /**
+     * @param urls          JDBC URLs of the read replicas
+     * @param stickyWindow  how long a client reads from the primary after its
+     *                      own write; should exceed the usual replica lag
+     * @param lagQuery      scalar SQL returning a replica's lag in seconds
+     * @param maxLag        replicas further behind fall back to the primary
+     * @param checkInterval how often replica reachability and lag are checked
+     */
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource dataSource(DataSourceProperties properties, Environment environment,
+            MeterRegistry meterRegistry,
+            @Value("${db.replica.urls}") List<String> urls,
+            @Value("${db.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${db.replica.password:${spring.datasource.password:}}") String password,
+            @Value("${db.replica.sticky-window:5s}") Duration stickyWindow,
+            @Value("${db.replica.lag-query:}") String lagQuery,
+            @Value("${db.replica.max-lag:2s}") Duration maxLag,
+            @Value("${db.replica.check-interval:5s}") Duration checkInterval) {
+        Binder binder = Binder.get(environment);
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("lms-primary");
+        primary.setMetricsTrackerFactory(metrics);
+
+        List<HikariDataSource> replicas = new ArrayList<>(urls.size());
+        for (String url : urls) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(url.trim())
+                    .username(username)
+                    .password(password)
+                    .build();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+            binder.bind("db.replica.hikari", Bindable.ofInstance(replica));
+            replica.setPoolName("lms-replica-" + (replicas.size() + 1));
+            replica.setReadOnly(true);
+            replica.setMetricsTrackerFactory(metrics);
+            replicas.add(replica);
+        }
+
+        return new ReplicaRoutingDataSource(primary, replicas, stickyWindow, lagQuery, maxLag, checkInterval,
+                meterRegistry);
+    }
+}
@@ -0,0 +1,268 @@
+package com.learnsphere.lms.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * DataSource that sends read-only transactions to read replicas and all other
+ * work to the primary
+ *
+ * Connections are handed out lazily, on the first statement, when the
+ * transaction's read-only flag is known. A read-only transaction goes to the
+ * next usable replica, round robin, except when:
+ * - the current client (JWT subject, or IP address without a token) ran a
+ * read-write transaction on this node within the sticky window, so it reads
+ * its own writes
+ * - the work was pinned to the primary with onPrimary()
+ * - no replica is usable
+ *
+ * A background check marks a replica unusable when it cannot be reached or,
+ * if a lag query is configured, when it is further behind than max-lag. A
+ * replica that fails to hand out a connection is marked unusable at once and
+ * the primary serves the request. Routing decisions are counted in the
+ * db.routing metric, tagged by route.
+ */
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Cache<String, Boolean> recentWriters;
+    private final String lagQuery;
+    private final double maxLagSeconds;
+    private final ScheduledExecutorService healthCheck;
+
+    private final Counter routedPrimary;
+    private final Counter routedReplica;
+    private final Counter routedSticky;
+    private final Counter routedFallback;
+
+    /**
+     * @param primary       pool for the primary
+     * @param replicaPools  pools for the read replicas
+     * @param stickyWindow  how long a client's reads stay on the primary after
+     *                      it writes
+     * @param lagQuery      scalar SQL run on a replica returning its lag in
+     *                      seconds (NULL = not replicating); blank to only
+     *                      check that the replica is reachable
+     * @param maxLag        replicas further behind are not used
+     * @param checkInterval how often replicas are checked
+     */
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicaPools,
+            Duration stickyWindow, String lagQuery, Duration maxLag, Duration checkInterval,
+            MeterRegistry meterRegistry) {
+        this.primary = primary;
+        replicaPools.forEach(pool -> replicas.add(new Replica(pool)));
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(stickyWindow)
+                .build();
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+
+        this.routedPrimary = routed(meterRegistry, "primary");
+        this.routedReplica = routed(meterRegistry, "replica");
+        this.routedSticky = routed(meterRegistry, "sticky");
+        this.routedFallback = routed(meterRegistry, "fallback");
+
+        setTargetDataSource(new Router());
+        afterPropertiesSet();
+
+        this.healthCheck = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthCheck.scheduleWithFixedDelay(this::checkReplicas, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Run work whose reads must see the latest committed data, such as
+     * credential checks, on the primary even inside read-only transactions
+     * Has no effect when replicas are not configured
+     *
+     * @param work the work to run
+     * @return the work's result
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean outer = PINNED.get();
+        PINNED.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (outer == null) {
+                PINNED.remove();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        healthCheck.shutdownNow();
+        replicas.forEach(replica -> replica.pool.close());
+        primary.close();
+    }
+
+    private static Counter routed(MeterRegistry meterRegistry, String route) {
+        return Counter.builder("db.routing")
+                .description("Connections handed out, by routing decision")
+                .tag("route", route)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Check every replica once; runs on the health check thread
+     */
+    private void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean usable;
+            try (Connection connection = replica.pool.getConnection()) {
+                usable = withinMaxLag(connection);
+            } catch (SQLException | RuntimeException e) {
+                usable = false;
+            }
+            if (usable != replica.usable) {
+                log.warn("Replica {} is now {}", replica.pool.getPoolName(), usable ? "in use" : "skipped");
+            }
+            replica.usable = usable;
+        }
+    }
+
+    private boolean withinMaxLag(Connection connection) throws SQLException {
+        if (!StringUtils.hasText(lagQuery)) {
+            return true;
+        }
+        try (Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            if (!resultSet.next()) {
+                return false;
+            }
+            double lagSeconds = resultSet.getDouble(1);
+            return !resultSet.wasNull() && lagSeconds <= maxLagSeconds;
+        }
+    }
+
+    /**
+     * The JWT subject if the request is authenticated, otherwise the IP
+     * address; null off the request path
+     */
+    private static String currentClient() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            return "ip:" + attributes.getRequest().getRemoteAddr();
+        }
+        return null;
+    }
+
+    private Replica nextUsable() {
+        int size = replicas.size();
+        if (size == 0) {
+            return null;
+        }
+        int start = Math.floorMod(nextReplica.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.usable) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private static final class Replica {
+
+        final HikariDataSource pool;
+        // Unknown until the first check
+        volatile boolean usable;
+
+        Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+    }
+
+    /**
+     * Picks the physical pool when the lazy proxy needs a real connection
+     */
+    private final class Router extends AbstractDataSource {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Replica replica = route();
+            if (replica == null) {
+                return primary.getConnection();
+            }
+            try {
+                return replica.pool.getConnection();
+            } catch (SQLException e) {
+                replica.usable = false;
+                routedFallback.increment();
+                log.warn("Replica {} refused a connection, reading from the primary", replica.pool.getPoolName(), e);
+                return primary.getConnection();
+            }
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            throw new SQLException("Per-call credentials are not supported when routing to replicas");
+        }
+
+        /**
+         * @return the replica to read from, or null for the primary
+         */
+        private Replica route() {
+            String client = currentClient();
+            if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                if (client != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                    recentWriters.put(client, Boolean.TRUE);
+                }
+                routedPrimary.increment();
+                return null;
+            }
+            if (PINNED.get() != null || (client != null && recentWriters.getIfPresent(client) != null)) {
+                routedSticky.increment();
+                return null;
+            }
+            Replica replica = nextUsable();
+            if (replica == null) {
+                routedFallback.increment();
+                return null;
+            }
+            routedReplica.increment();
+            return replica;
+        }
+    }
+}
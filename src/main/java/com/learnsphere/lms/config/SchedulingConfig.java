@@ -0,0 +1,13 @@
+package com.learnsphere.lms.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Scheduling Configuration
+ * Enables @Scheduled background jobs (e.g. periodic search index rebuilds)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
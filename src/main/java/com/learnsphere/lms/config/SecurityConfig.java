@@ -1,6 +1,8 @@
 package com.learnsphere.lms.config;
 
 import com.learnsphere.lms.security.JwtAuthenticationFilter;
+import com.learnsphere.lms.security.RateLimitFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -13,6 +15,7 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfigurationSource;
 
 @Configuration
@@ -20,13 +23,23 @@ import org.springframework.web.cors.CorsConfigurationSource;
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
     private final CorsConfigurationSource corsConfigurationSource;
+    // Health checks and Prometheus scrapes arriving on the separate management
+    // port (internal only in production); never matches when there is none
+    private final RequestMatcher managementScrapes;
 
     // Constructor injection
     public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter,
-            CorsConfigurationSource corsConfigurationSource) {
+            RateLimitFilter rateLimitFilter,
+            CorsConfigurationSource corsConfigurationSource,
+            @Value("${management.server.port:-1}") int managementPort) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+        this.rateLimitFilter = rateLimitFilter;
         this.corsConfigurationSource = corsConfigurationSource;
+        this.managementScrapes = request -> managementPort > 0 && request.getLocalPort() == managementPort
+                && ("/actuator/health".equals(request.getRequestURI())
+                        || "/actuator/prometheus".equals(request.getRequestURI()));
     }
 
     @Bean
@@ -49,6 +62,9 @@ public class SecurityConfig {
                         // API endpoints
                         .requestMatchers("/api/auth/**").permitAll() // Allow authentication endpoints
                         .requestMatchers("/api/users/register").permitAll() // Allow registration
+                        .requestMatchers("/api/users/import").hasRole("ADMIN") // Only ADMIN can import users
+                        .requestMatchers(HttpMethod.PUT, "/api/users/*/role").hasRole("ADMIN") // Only ADMIN can
+                                                                                                // change roles
                         .requestMatchers(HttpMethod.POST, "/api/courses/add").hasRole("ADMIN") // Only ADMIN can add
                                                                                                // courses
                         .requestMatchers(HttpMethod.PUT, "/api/courses/**").hasRole("ADMIN") // Only ADMIN can update
@@ -57,12 +73,19 @@ public class SecurityConfig {
                                                                                                 // courses
                         .requestMatchers(HttpMethod.GET, "/api/courses/**").authenticated() // All authenticated users
                                                                                             // can view courses
-                        .requestMatchers("/api/enrollments/enroll").hasRole("STUDENT") // Only STUDENT can enroll
+                        // Only STUDENT can enroll
+                        .requestMatchers("/api/enrollments/enroll", "/api/enrollments/me/enroll").hasRole("STUDENT")
+                        .requestMatchers("/api/enrollments/bulk").hasRole("ADMIN") // Only ADMIN can bulk enroll
+                        .requestMatchers(HttpMethod.GET, "/api/enrollments/course/**").hasRole("ADMIN") // Only ADMIN
+                                                                                                      // can view rosters
                         .requestMatchers("/api/enrollments/**").authenticated() // All authenticated users can view
                                                                                 // enrollments
+                        .requestMatchers(managementScrapes).permitAll() // Monitoring on the management port
+                        .requestMatchers("/actuator/**").hasRole("ADMIN") // Only ADMIN can view metrics
                         .anyRequest().authenticated() // All other requests require authentication
                 )
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class); // Add JWT filter
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class) // Add JWT filter
+                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class); // Limit per IP / JWT subject
 
         return http.build();
     }
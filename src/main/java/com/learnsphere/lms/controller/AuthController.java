@@ -1,80 +1,102 @@
 package com.learnsphere.lms.controller;
 
 import com.learnsphere.lms.dto.ApiResponse;
-import com.learnsphere.lms.security.CustomUserDetailsService;
 import com.learnsphere.lms.security.JwtUtil;
+import com.learnsphere.lms.security.PasswordHashingExecutor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
 
     private final AuthenticationManager authenticationManager;
-    private final CustomUserDetailsService userDetailsService;
+    private final PasswordHashingExecutor passwordHashingExecutor;
     private final JwtUtil jwtUtil;
 
     // Constructor injection
     public AuthController(AuthenticationManager authenticationManager,
-            CustomUserDetailsService userDetailsService,
+            PasswordHashingExecutor passwordHashingExecutor,
             JwtUtil jwtUtil) {
         this.authenticationManager = authenticationManager;
-        this.userDetailsService = userDetailsService;
+        this.passwordHashingExecutor = passwordHashingExecutor;
         this.jwtUtil = jwtUtil;
     }
 
     /**
      * Login endpoint - authenticate user and return JWT token
+     * The BCrypt check runs on the bounded hashing pool and the request thread
+     * is released while it waits
      * 
      * @param loginRequest login credentials (email and password)
-     * @return ResponseEntity with standardized API response
+     * @return future ResponseEntity with standardized API response
      */
     @PostMapping("/login")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> login(@RequestBody LoginRequest loginRequest) {
-        try {
-            // Authenticate user
-            authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            loginRequest.getEmail(),
-                            loginRequest.getPassword()));
-
-            // Load user details
-            UserDetails userDetails = userDetailsService.loadUserByUsername(loginRequest.getEmail());
-
-            // Extract role from authorities
-            String role = userDetails.getAuthorities().iterator().next().getAuthority();
-            // Remove "ROLE_" prefix
-            if (role.startsWith("ROLE_")) {
-                role = role.substring(5);
-            }
-
-            // Generate JWT token
-            String token = jwtUtil.generateToken(userDetails.getUsername(), role);
-
-            // Prepare response data
-            Map<String, Object> authData = new HashMap<>();
-            authData.put("token", token);
-            authData.put("email", userDetails.getUsername());
-            authData.put("role", role);
-
-            return ResponseEntity.ok(
-                    ApiResponse.success("Login successful", authData));
-
-        } catch (BadCredentialsException e) {
+    public CompletableFuture<ResponseEntity<ApiResponse<Map<String, Object>>>> login(
+            @RequestBody LoginRequest loginRequest) {
+        UsernamePasswordAuthenticationToken credentials = new UsernamePasswordAuthenticationToken(
+                loginRequest.getEmail(),
+                loginRequest.getPassword());
+
+        // Authenticate user (will throw TooManyRequestsException if the hashing pool is saturated)
+        return passwordHashingExecutor.submit(() -> authenticationManager.authenticate(credentials))
+                .handle((authentication, error) -> error == null
+                        ? loginSucceeded(authentication)
+                        : loginFailed(error));
+    }
+
+    /**
+     * Issue a token for an authenticated user
+     * Uses the UserDetails loaded during authentication, so a login costs one
+     * user lookup
+     */
+    private ResponseEntity<ApiResponse<Map<String, Object>>> loginSucceeded(Authentication authentication) {
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+
+        // Extract role from authorities
+        String role = userDetails.getAuthorities().iterator().next().getAuthority();
+        // Remove "ROLE_" prefix
+        if (role.startsWith("ROLE_")) {
+            role = role.substring(5);
+        }
+
+        // Generate JWT token
+        String token = jwtUtil.generateToken(userDetails.getUsername(), role);
+
+        // Prepare response data
+        Map<String, Object> authData = new HashMap<>();
+        authData.put("token", token);
+        authData.put("email", userDetails.getUsername());
+        authData.put("role", role);
+
+        return ResponseEntity.ok(
+                ApiResponse.success("Login successful", authData));
+    }
+
+    /**
+     * Map an authentication failure to an error response
+     */
+    private ResponseEntity<ApiResponse<Map<String, Object>>> loginFailed(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error;
+        if (cause instanceof BadCredentialsException) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(ApiResponse.error("Invalid email or password"));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(ApiResponse.error("Authentication failed: " + e.getMessage()));
         }
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiResponse.error("Authentication failed: " + cause.getMessage()));
     }
 
     /**
@@ -0,0 +1,65 @@
+package com.learnsphere.lms.controller;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+/**
+ * Which binary encoding, if any, a request's Accept header asks for
+ * Needed where a response is chosen before message conversion: pre-encoded
+ * JSON bodies and per-encoding ETags
+ */
+final class BinaryFormats {
+
+    static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private static final List<MediaType> BINARY = List.of(MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+
+    private BinaryFormats() {
+    }
+
+    /**
+     * The binary media type preferred over JSON by the Accept header
+     * A binary type wins only when listed explicitly with at least the
+     * quality JSON (or a wildcard) has
+     *
+     * @param accept the Accept header, may be null
+     * @return application/cbor, application/x-jackson-smile, or null for JSON
+     */
+    static MediaType preferred(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return null;
+        }
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+        MediaType binary = null;
+        double binaryQuality = 0;
+        double jsonQuality = 0;
+        for (MediaType mediaType : mediaTypes) {
+            double quality = mediaType.getQualityValue();
+            MediaType type = mediaType.removeQualityValue();
+            if (BINARY.contains(type)) {
+                if (quality > binaryQuality) {
+                    binary = type;
+                    binaryQuality = quality;
+                }
+            } else if (type.includes(MediaType.APPLICATION_JSON)) {
+                jsonQuality = Math.max(jsonQuality, quality);
+            }
+        }
+        return binary != null && binaryQuality >= jsonQuality ? binary : null;
+    }
+
+    /**
+     * ETag suffix for the encoding the Accept header selects; empty for JSON
+     */
+    static String etagSuffix(String accept) {
+        MediaType binary = preferred(accept);
+        return binary == null ? "" : "-" + binary.getSubtype();
+    }
+}
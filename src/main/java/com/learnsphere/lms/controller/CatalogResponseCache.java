@@ -0,0 +1,182 @@
+package com.learnsphere.lms.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learnsphere.lms.dto.ApiResponse;
+import com.learnsphere.lms.dto.CourseView;
+import com.learnsphere.lms.service.CatalogChangedEvent;
+import com.learnsphere.lms.service.CourseService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pre-encoded GET /api/courses/all responses
+ *
+ * Holds the response for each view as JSON bytes and as gzip bytes, labelled
+ * with the catalog version they were built from. The controller writes these
+ * bytes as they are, so a catalog request costs neither serialization nor
+ * compression. Compressing once per version also makes the best gzip level
+ * affordable, where per-request compression has to trade size for CPU.
+ *
+ * A CatalogChangedEvent (a write on this node) rebuilds both views on a
+ * background thread, and a burst of writes coalesces into one rebuild. A
+ * version the cache was not told about (the TTL rollover, or a request that
+ * beats the rebuild) is built on the request thread, once per view.
+ */
+@Component
+public class CatalogResponseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogResponseCache.class);
+
+    private final CourseService courseService;
+    private final ObjectMapper objectMapper;
+    private final Map<CourseView, AtomicReference<Entry>> entries = new EnumMap<>(CourseView.class);
+    private final ThreadPoolExecutor rebuilder;
+
+    public CatalogResponseCache(CourseService courseService, ObjectMapper objectMapper) {
+        this.courseService = courseService;
+        this.objectMapper = objectMapper;
+        for (CourseView view : CourseView.values()) {
+            entries.put(view, new AtomicReference<>());
+        }
+        // One rebuild running and at most one waiting; the waiting one reads
+        // the latest version when it starts, so further requests are dropped
+        this.rebuilder = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "catalog-response-rebuild");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    /**
+     * Get the encoded response for the current catalog version, building it
+     * if the cache is behind
+     *
+     * @param view the catalog view
+     * @return the cached entry
+     */
+    Entry get(CourseView view) {
+        String version = courseService.getCatalogVersion();
+        AtomicReference<Entry> current = entries.get(view);
+        Entry entry = current.get();
+        if (entry != null && entry.version.equals(version)) {
+            return entry;
+        }
+        // Concurrent misses for the same view wait for one build
+        synchronized (current) {
+            entry = current.get();
+            if (entry == null || !entry.version.equals(version)) {
+                entry = build(view, version);
+                current.set(entry);
+            }
+            return entry;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        scheduleRebuild();
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        scheduleRebuild();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdown();
+    }
+
+    private void scheduleRebuild() {
+        rebuilder.execute(() -> {
+            for (CourseView view : CourseView.values()) {
+                try {
+                    get(view);
+                } catch (RuntimeException e) {
+                    // The next request retries on its own thread
+                    log.warn("Catalog response rebuild failed for view {}", view, e);
+                }
+            }
+        });
+    }
+
+    /**
+     * The catalog is read after the version, so the content is at least as
+     * new as the label; a newer write just causes one more rebuild
+     */
+    private Entry build(CourseView view, String version) {
+        List<?> courses = view == CourseView.FULL
+                ? courseService.getAllCourses()
+                : courseService.getAllCourseSummaries();
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(
+                    ApiResponse.success("Courses retrieved successfully", courses));
+            return new Entry(version, json, gzip(json));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * One catalog view encoded for a catalog version
+     */
+    static final class Entry {
+
+        private final String version;
+        private final byte[] json;
+        private final byte[] gzip;
+
+        private Entry(String version, byte[] json, byte[] gzip) {
+            this.version = version;
+            this.json = json;
+            this.gzip = gzip;
+        }
+
+        String version() {
+            return version;
+        }
+
+        byte[] json() {
+            return json;
+        }
+
+        byte[] gzip() {
+            return gzip;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.learnsphere.lms.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Helper for GET endpoints that support If-None-Match
+ * The body is only built when the client's ETag is stale, so a 304 costs
+ * neither a query nor serialization
+ */
+final class ConditionalResponses {
+
+    // Let browsers keep the response but revalidate it on every use
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ConditionalResponses() {
+    }
+
+    /**
+     * Answer 304 if the request's If-None-Match matches the ETag, otherwise 200
+     * with the supplied body
+     *
+     * @param request the current request
+     * @param etag    the strong ETag of the current content (unquoted); the
+     *                encoding chosen by Accept is appended
+     * @param body    builds the response body
+     * @return ResponseEntity carrying the ETag
+     */
+    static <T> ResponseEntity<T> ifNoneMatch(WebRequest request, String etag, Supplier<T> body) {
+        // JSON, CBOR and Smile bodies are different representations
+        String representation = etag + BinaryFormats.etagSuffix(request.getHeader(HttpHeaders.ACCEPT));
+        return ifNoneMatchVarying(request, representation, ok -> ok.body(body.get()), HttpHeaders.ACCEPT);
+    }
+
+    /**
+     * Like ifNoneMatch, for representations chosen by request headers
+     * The Vary headers go on both the 304 and the 200, and the caller
+     * completes the 200 (e.g. with Content-Encoding)
+     *
+     * @param request the current request
+     * @param etag    the strong ETag of the selected representation (unquoted)
+     * @param ok      completes the 200 response
+     * @param vary    request headers the representation depends on
+     * @return ResponseEntity carrying the ETag
+     */
+    static <T> ResponseEntity<T> ifNoneMatchVarying(WebRequest request, String etag,
+            Function<ResponseEntity.BodyBuilder, ResponseEntity<T>> ok, String... vary) {
+        String quotedEtag = "\"" + etag + "\"";
+        HttpHeaders headers = new HttpHeaders();
+        if (vary.length > 0) {
+            headers.setVary(List.of(vary));
+        }
+        if (request.checkNotModified(quotedEtag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .headers(headers)
+                    .eTag(quotedEtag)
+                    .cacheControl(REVALIDATE)
+                    .build();
+        }
+        return ok.apply(ResponseEntity.ok()
+                .headers(headers)
+                .eTag(quotedEtag)
+                .cacheControl(REVALIDATE));
+    }
+}
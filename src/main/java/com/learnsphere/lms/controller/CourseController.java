@@ -1,24 +1,45 @@
 package com.learnsphere.lms.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.learnsphere.lms.dto.ApiResponse;
+import com.learnsphere.lms.dto.CourseSuggestion;
+import com.learnsphere.lms.dto.CourseSummary;
+import com.learnsphere.lms.dto.CourseView;
+import com.learnsphere.lms.dto.CursorPage;
+import com.learnsphere.lms.dto.PopularCourse;
 import com.learnsphere.lms.model.Course;
 import com.learnsphere.lms.service.CourseService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/courses")
 public class CourseController {
 
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final CourseService courseService;
+    private final ObjectMapper objectMapper;
+    private final CatalogResponseCache catalogResponses;
 
     // Constructor injection
-    public CourseController(CourseService courseService) {
+    public CourseController(CourseService courseService, ObjectMapper objectMapper,
+            CatalogResponseCache catalogResponses) {
         this.courseService = courseService;
+        this.objectMapper = objectMapper;
+        this.catalogResponses = catalogResponses;
     }
 
     /**
@@ -37,27 +58,163 @@ public class CourseController {
 
     /**
      * Fetch all courses
+     * Loads the whole catalog in one response; prefer /page or /stream for large
+     * catalogs. The ETag is the catalog version, so an unchanged catalog is
+     * answered with 304. JSON is written from CatalogResponseCache, already
+     * serialized, and already gzipped when the client accepts gzip; CBOR and
+     * Smile go through the message converters
      * 
+     * @param view           "summary" (default) for card fields only, "full" to
+     *                       include descriptions
+     * @param accept         the client's Accept header
+     * @param acceptEncoding the client's Accept-Encoding header
+     * @param request        the current request (for If-None-Match)
      * @return ResponseEntity with standardized API response
      */
     @GetMapping("/all")
-    public ResponseEntity<ApiResponse<List<Course>>> getAllCourses() {
-        List<Course> courses = courseService.getAllCourses();
+    public ResponseEntity<?> getAllCourses(
+            @RequestParam(defaultValue = "summary") String view,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest request) {
+        CourseView courseView = CourseView.fromParam(view);
+        String etag = "catalog-" + courseService.getCatalogVersion() + "-" + courseView.name();
+        if (BinaryFormats.preferred(accept) != null) {
+            return ConditionalResponses.ifNoneMatch(request, etag, () -> {
+                List<?> courses = courseView == CourseView.FULL
+                        ? courseService.getAllCourses()
+                        : courseService.getAllCourseSummaries();
+                return ApiResponse.success("Courses retrieved successfully", courses);
+            });
+        }
+        boolean gzip = acceptsGzip(acceptEncoding);
+        // Each encoding is its own representation, so it gets its own ETag
+        return ConditionalResponses.ifNoneMatchVarying(request, etag + (gzip ? "-gzip" : ""), ok -> {
+            CatalogResponseCache.Entry entry = catalogResponses.get(courseView);
+            ok.contentType(MediaType.APPLICATION_JSON);
+            if (gzip) {
+                // Content-Encoding also keeps server.compression off this response
+                return ok.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(entry.gzip());
+            }
+            return ok.body(entry.json());
+        }, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    /**
+     * Fetch one page of courses using keyset pagination on id
+     * 
+     * @param after the nextCursor of the previous page (omit for the first page)
+     * @param size  the number of courses per page
+     * @param view    "summary" (default) or "full"
+     * @param request the current request (for If-None-Match)
+     * @return ResponseEntity with standardized API response
+     */
+    @GetMapping("/page")
+    public ResponseEntity<ApiResponse<CursorPage<?>>> getCoursesPage(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "" + CourseService.DEFAULT_PAGE_SIZE) int size,
+            @RequestParam(defaultValue = "summary") String view, WebRequest request) {
+        CourseView courseView = CourseView.fromParam(view);
+        String etag = "catalog-" + courseService.getCatalogVersion() + "-" + courseView.name()
+                + "-" + (after == null ? 0 : after) + "-" + size;
+        return ConditionalResponses.ifNoneMatch(request, etag, () -> {
+            CursorPage<?> page = courseView == CourseView.FULL
+                    ? courseService.getCoursesPage(after, size)
+                    : courseService.getCourseSummariesPage(after, size);
+            return ApiResponse.success("Courses retrieved successfully", page);
+        });
+    }
+
+    /**
+     * Stream all courses as newline-delimited JSON (one course per line)
+     * Rows are written as they come off the database cursor, so memory per
+     * request stays bounded regardless of catalog size
+     * 
+     * @param view "summary" (default) or "full"
+     * @return ResponseEntity streaming the catalog
+     */
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamCourses(
+            @RequestParam(defaultValue = "summary") String view) {
+        boolean full = CourseView.fromParam(view) == CourseView.FULL;
+        ObjectWriter writer = objectMapper.writerFor(full ? Course.class : CourseSummary.class);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                // Lines are separated explicitly in writeLine
+                generator.setRootValueSeparator(null);
+                if (full) {
+                    courseService.streamAllCourses(course -> writeLine(generator, writer, course));
+                } else {
+                    courseService.streamAllCourseSummaries(summary -> writeLine(generator, writer, summary));
+                }
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Search courses by title, description and instructor
+     * Words match as prefixes ("prog jav" finds "Programming in Java"); results
+     * are ranked by relevance
+     * 
+     * @param q     the search text
+     * @param limit the maximum number of results
+     * @return ResponseEntity with standardized API response
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<List<CourseSummary>>> searchCourses(@RequestParam String q,
+            @RequestParam(defaultValue = "" + CourseService.DEFAULT_SEARCH_LIMIT) int limit) {
+        List<CourseSummary> courses = courseService.searchCourses(q, limit);
         return ResponseEntity.ok(
                 ApiResponse.success("Courses retrieved successfully", courses));
     }
 
+    /**
+     * Typeahead suggestions for course titles and instructor names
+     * Words match as prefixes ("jav" suggests "Advanced Java")
+     * 
+     * @param prefix the text typed so far
+     * @param limit  the maximum number of suggestions
+     * @return ResponseEntity with standardized API response
+     */
+    @GetMapping("/autocomplete")
+    public ResponseEntity<ApiResponse<List<CourseSuggestion>>> autocompleteCourses(@RequestParam String prefix,
+            @RequestParam(defaultValue = "" + CourseService.DEFAULT_SUGGESTION_LIMIT) int limit) {
+        List<CourseSuggestion> suggestions = courseService.suggestCourses(prefix, limit);
+        return ResponseEntity.ok(
+                ApiResponse.success("Suggestions retrieved successfully", suggestions));
+    }
+
+    /**
+     * Get the most enrolled courses with their enrollment counts
+     * 
+     * @param k the number of courses
+     * @return ResponseEntity with standardized API response
+     */
+    @GetMapping("/popular")
+    public ResponseEntity<ApiResponse<List<PopularCourse>>> getPopularCourses(
+            @RequestParam(defaultValue = "" + CourseService.DEFAULT_POPULAR_LIMIT) int k) {
+        List<PopularCourse> courses = courseService.getPopularCourses(k);
+        return ResponseEntity.ok(
+                ApiResponse.success("Popular courses retrieved successfully", courses));
+    }
+
     /**
      * Fetch course by ID
+     * The ETag is the course version, so an unchanged course is answered with 304
      * 
-     * @param id the course ID
+     * @param id      the course ID
+     * @param request the current request (for If-None-Match)
      * @return ResponseEntity with standardized API response
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<Course>> getCourseById(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse<Course>> getCourseById(@PathVariable Long id, WebRequest request) {
         Course course = courseService.getCourseById(id);
-        return ResponseEntity.ok(
-                ApiResponse.success("Course retrieved successfully", course));
+        String etag = "course-" + course.getId() + "-" + course.getVersion();
+        return ConditionalResponses.ifNoneMatch(request, etag,
+                () -> ApiResponse.success("Course retrieved successfully", course));
     }
 
     /**
@@ -87,4 +244,38 @@ public class CourseController {
         return ResponseEntity.ok(
                 ApiResponse.success("Course deleted successfully"));
     }
+
+    /**
+     * Write one value followed by a newline to an NDJSON stream
+     */
+    private void writeLine(JsonGenerator generator, ObjectWriter writer, Object value) {
+        try {
+            writer.writeValue(generator, value);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Whether Accept-Encoding allows gzip ("gzip" or "*" without q=0)
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+                for (int i = 1; i < parts.length; i++) {
+                    if (parts[i].trim().matches("q=0(\\.0{0,3})?")) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
 }
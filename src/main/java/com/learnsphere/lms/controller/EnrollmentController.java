@@ -1,6 +1,11 @@
 package com.learnsphere.lms.controller;
 
 import com.learnsphere.lms.dto.ApiResponse;
+import com.learnsphere.lms.dto.BulkResult;
+import com.learnsphere.lms.dto.CourseView;
+import com.learnsphere.lms.dto.DailyEnrollments;
+import com.learnsphere.lms.dto.EnrollmentPair;
+import com.learnsphere.lms.dto.EnrollmentSummary;
 import com.learnsphere.lms.model.Course;
 import com.learnsphere.lms.model.Enrollment;
 import com.learnsphere.lms.model.User;
@@ -9,7 +14,10 @@ import com.learnsphere.lms.service.EnrollmentService;
 import com.learnsphere.lms.service.UserService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -37,7 +45,7 @@ public class EnrollmentController {
      * @return ResponseEntity with standardized API response
      */
     @PostMapping("/enroll")
-    public ResponseEntity<ApiResponse<Enrollment>> enrollUser(@RequestBody EnrollmentRequest request) {
+    public ResponseEntity<ApiResponse<EnrollmentSummary>> enrollUser(@RequestBody EnrollmentRequest request) {
         // Get user and course (will throw ResourceNotFoundException if not found)
         User user = userService.getUserByIdOrThrow(request.getUserId());
         Course course = courseService.getCourseById(request.getCourseId());
@@ -45,24 +53,144 @@ public class EnrollmentController {
         // Enroll user (will throw DuplicateEnrollmentException if already enrolled)
         Enrollment enrollment = enrollmentService.enrollUser(user, course);
         return new ResponseEntity<>(
-                ApiResponse.success("Enrollment successful", enrollment),
+                ApiResponse.success("Enrollment successful", EnrollmentSummary.from(enrollment)),
                 HttpStatus.CREATED);
     }
 
+    /**
+     * Enroll many users into courses in one request (ADMIN only)
+     * Rows that fail (unknown user or course, already enrolled) are reported
+     * individually and do not stop the others
+     * 
+     * @param pairs the (userId, courseId) pairs to enroll
+     * @return ResponseEntity with per-row results
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<ApiResponse<BulkResult>> bulkEnroll(@RequestBody List<EnrollmentPair> pairs) {
+        BulkResult result = enrollmentService.bulkEnroll(pairs);
+        return ResponseEntity.ok(
+                ApiResponse.success("Bulk enrollment processed", result));
+    }
+
+    /**
+     * Enroll the authenticated user into a course
+     * The user is taken from the JWT subject, so clients never need their user ID
+     * 
+     * @param principal the authenticated user
+     * @param request   request containing the courseId
+     * @return ResponseEntity with standardized API response
+     */
+    @PostMapping("/me/enroll")
+    public ResponseEntity<ApiResponse<EnrollmentSummary>> enrollCurrentUser(
+            @AuthenticationPrincipal UserDetails principal,
+            @RequestBody SelfEnrollmentRequest request) {
+        // Get user and course (will throw ResourceNotFoundException if not found)
+        User user = userService.getUserByEmailOrThrow(principal.getUsername());
+        Course course = courseService.getCourseById(request.getCourseId());
+
+        // Enroll user (will throw DuplicateEnrollmentException if already enrolled)
+        Enrollment enrollment = enrollmentService.enrollUser(user, course);
+        return new ResponseEntity<>(
+                ApiResponse.success("Enrollment successful", EnrollmentSummary.from(enrollment)),
+                HttpStatus.CREATED);
+    }
+
+    /**
+     * Get all courses enrolled by the authenticated user
+     * Answered with 304 while the user's enrollments are unchanged
+     * 
+     * @param principal the authenticated user
+     * @param view      "summary" (default) for card fields only, "full" to
+     *                  include descriptions
+     * @param request   the current request (for If-None-Match)
+     * @return ResponseEntity with standardized API response
+     */
+    @GetMapping("/me")
+    public ResponseEntity<ApiResponse<List<?>>> getCurrentUserCourses(
+            @AuthenticationPrincipal UserDetails principal,
+            @RequestParam(defaultValue = "summary") String view, WebRequest request) {
+        Long userId = userService.getUserByEmailOrThrow(principal.getUsername()).getId();
+        return enrolledCourses(userId, CourseView.fromParam(view), request);
+    }
+
     /**
      * Get all courses enrolled by a user
+     * Answered with 304 while the user's enrollments are unchanged
      * 
-     * @param userId the user ID
+     * @param userId  the user ID
+     * @param view    "summary" (default) for card fields only, "full" to
+     *                include descriptions
+     * @param request the current request (for If-None-Match)
      * @return ResponseEntity with standardized API response
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<ApiResponse<List<Course>>> getCoursesEnrolledByUser(@PathVariable Long userId) {
+    public ResponseEntity<ApiResponse<List<?>>> getCoursesEnrolledByUser(@PathVariable Long userId,
+            @RequestParam(defaultValue = "summary") String view, WebRequest request) {
         // Validate user exists (will throw ResourceNotFoundException if not found)
         userService.getUserByIdOrThrow(userId);
+        return enrolledCourses(userId, CourseView.fromParam(view), request);
+    }
+
+    /**
+     * Get the roster of a course (ADMIN only)
+     * 
+     * @param courseId the course ID
+     * @return ResponseEntity with standardized API response
+     */
+    @GetMapping("/course/{courseId}")
+    public ResponseEntity<ApiResponse<List<EnrollmentSummary>>> getCourseRoster(@PathVariable Long courseId) {
+        // Validate course exists (will throw ResourceNotFoundException if not found)
+        courseService.getCourseById(courseId);
+
+        List<EnrollmentSummary> roster = enrollmentService.getRosterByCourseId(courseId);
+        return ResponseEntity.ok(
+                ApiResponse.success("Course roster retrieved successfully", roster));
+    }
 
-        List<Course> courses = enrollmentService.getCoursesEnrolledByUser(userId);
+    /**
+     * Get the number of students enrolled in a course (ADMIN only)
+     * Reads the course's counter instead of loading the roster
+     * 
+     * @param courseId the course ID
+     * @return ResponseEntity with standardized API response
+     */
+    @GetMapping("/course/{courseId}/count")
+    public ResponseEntity<ApiResponse<Long>> getEnrollmentCount(@PathVariable Long courseId) {
+        long count = enrollmentService.getEnrollmentCount(courseId);
         return ResponseEntity.ok(
-                ApiResponse.success("Enrolled courses retrieved successfully", courses));
+                ApiResponse.success("Enrollment count retrieved successfully", count));
+    }
+
+    /**
+     * Get a course's enrollments per day (ADMIN only)
+     * 
+     * @param courseId the course ID
+     * @param days     the number of days up to and including today
+     * @return ResponseEntity with standardized API response
+     */
+    @GetMapping("/course/{courseId}/daily")
+    public ResponseEntity<ApiResponse<List<DailyEnrollments>>> getDailyEnrollments(@PathVariable Long courseId,
+            @RequestParam(defaultValue = "" + EnrollmentService.DEFAULT_DAILY_DAYS) int days) {
+        // Validate course exists (will throw ResourceNotFoundException if not found)
+        courseService.getCourseById(courseId);
+
+        List<DailyEnrollments> daily = enrollmentService.getDailyEnrollments(courseId, days);
+        return ResponseEntity.ok(
+                ApiResponse.success("Daily enrollments retrieved successfully", daily));
+    }
+
+    /**
+     * Build the enrolled-courses response, keyed by the enrollments version
+     */
+    private ResponseEntity<ApiResponse<List<?>>> enrolledCourses(Long userId, CourseView view, WebRequest request) {
+        String etag = "enrollments-" + userId + "-" + view.name() + "-"
+                + enrollmentService.getEnrollmentsVersion(userId);
+        return ConditionalResponses.ifNoneMatch(request, etag, () -> {
+            List<?> courses = view == CourseView.FULL
+                    ? enrollmentService.getCoursesEnrolledByUser(userId)
+                    : enrollmentService.getCourseSummariesEnrolledByUser(userId);
+            return ApiResponse.success("Enrolled courses retrieved successfully", courses);
+        });
     }
 
     /**
@@ -96,4 +224,26 @@ public class EnrollmentController {
             this.courseId = courseId;
         }
     }
+
+    /**
+     * Inner class for enrolling the authenticated user
+     */
+    public static class SelfEnrollmentRequest {
+        private Long courseId;
+
+        public SelfEnrollmentRequest() {
+        }
+
+        public SelfEnrollmentRequest(Long courseId) {
+            this.courseId = courseId;
+        }
+
+        public Long getCourseId() {
+            return courseId;
+        }
+
+        public void setCourseId(Long courseId) {
+            this.courseId = courseId;
+        }
+    }
 }
@@ -1,13 +1,23 @@
 package com.learnsphere.lms.controller;
 
 import com.learnsphere.lms.dto.ApiResponse;
+import com.learnsphere.lms.dto.BulkResult;
 import com.learnsphere.lms.model.User;
+import com.learnsphere.lms.service.UserImportService;
 import com.learnsphere.lms.service.UserService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -15,10 +25,12 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final UserImportService userImportService;
 
     // Constructor injection
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserImportService userImportService) {
         this.userService = userService;
+        this.userImportService = userImportService;
     }
 
     /**
@@ -40,6 +52,32 @@ public class UserController {
                 .body(ApiResponse.success("User registered successfully", savedUser));
     }
 
+    /**
+     * Import users in bulk from CSV (text/csv) or NDJSON (application/x-ndjson)
+     * (ADMIN only)
+     * The body is read as a stream; rows that fail (invalid, duplicate email)
+     * are reported individually and do not stop the import
+     * 
+     * @param contentType the request content type
+     * @param body        the request body
+     * @return ResponseEntity with per-row results
+     * @throws IOException if the body cannot be read
+     */
+    @PostMapping(value = "/import", consumes = { "text/csv", "application/x-ndjson" })
+    public ResponseEntity<ApiResponse<BulkResult>> importUsers(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        Charset charset = mediaType.getCharset() != null ? mediaType.getCharset() : StandardCharsets.UTF_8;
+        Reader reader = new InputStreamReader(body, charset);
+
+        BulkResult result = "csv".equals(mediaType.getSubtype())
+                ? userImportService.importCsv(reader)
+                : userImportService.importNdjson(reader);
+        return ResponseEntity.ok(
+                ApiResponse.success("User import processed", result));
+    }
+
     /**
      * Get all users
      * 
@@ -51,4 +89,44 @@ public class UserController {
         return ResponseEntity.ok(
                 ApiResponse.success("Users retrieved successfully", users));
     }
+
+    /**
+     * Change a user's role (ADMIN only)
+     * 
+     * @param id      the user ID
+     * @param request the new role
+     * @return ResponseEntity with standardized API response
+     */
+    @PutMapping("/{id}/role")
+    public ResponseEntity<ApiResponse<User>> updateUserRole(@PathVariable Long id,
+            @RequestBody RoleRequest request) {
+        if (!"ADMIN".equals(request.getRole()) && !"STUDENT".equals(request.getRole())) {
+            throw new IllegalArgumentException("Role must be ADMIN or STUDENT");
+        }
+        User updatedUser = userService.updateUserRole(id, request.getRole());
+        return ResponseEntity.ok(
+                ApiResponse.success("User role updated successfully", updatedUser));
+    }
+
+    /**
+     * Inner class for role change request
+     */
+    public static class RoleRequest {
+        private String role;
+
+        public RoleRequest() {
+        }
+
+        public RoleRequest(String role) {
+            this.role = role;
+        }
+
+        public String getRole() {
+            return role;
+        }
+
+        public void setRole(String role) {
+            this.role = role;
+        }
+    }
 }
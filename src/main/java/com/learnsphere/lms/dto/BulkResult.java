@@ -0,0 +1,60 @@
+package com.learnsphere.lms.dto;
+
+import java.util.List;
+
+/**
+ * Result of a bulk operation: totals plus one entry per request row, in
+ * request order
+ */
+public class BulkResult {
+
+    private int total;
+    private int succeeded;
+    private int failed;
+    private List<BulkRowResult> rows;
+
+    public BulkResult() {
+    }
+
+    public BulkResult(List<BulkRowResult> rows) {
+        this.rows = rows;
+        this.total = rows.size();
+        this.succeeded = (int) rows.stream()
+                .filter(row -> row.getStatus() == BulkRowResult.Status.CREATED)
+                .count();
+        this.failed = total - succeeded;
+    }
+
+    // Getters and Setters
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<BulkRowResult> getRows() {
+        return rows;
+    }
+
+    public void setRows(List<BulkRowResult> rows) {
+        this.rows = rows;
+    }
+}
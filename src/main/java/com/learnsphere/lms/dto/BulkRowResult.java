@@ -0,0 +1,64 @@
+package com.learnsphere.lms.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one row of a bulk operation
+ * index is the row's position in the request (0-based)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkRowResult {
+
+    /**
+     * Row outcomes; only CREATED counts as a success
+     */
+    public enum Status {
+        CREATED,
+        DUPLICATE,
+        NOT_FOUND,
+        INVALID,
+        FAILED
+    }
+
+    private int index;
+    private Status status;
+    private String message;
+
+    public BulkRowResult() {
+    }
+
+    public BulkRowResult(int index, Status status, String message) {
+        this.index = index;
+        this.status = status;
+        this.message = message;
+    }
+
+    public static BulkRowResult created(int index) {
+        return new BulkRowResult(index, Status.CREATED, null);
+    }
+
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,66 @@
+package com.learnsphere.lms.dto;
+
+/**
+ * One autocomplete suggestion: a course title or an instructor name
+ */
+public class CourseSuggestion {
+
+    public enum Type {
+        TITLE, INSTRUCTOR
+    }
+
+    private String text;
+    private Type type;
+    private int courseCount;
+    private Long courseId;
+
+    public CourseSuggestion() {
+    }
+
+    /**
+     * @param text        the title or instructor name as entered
+     * @param type        which field the text comes from
+     * @param courseCount number of courses with this title or instructor
+     * @param courseId    the course ID when exactly one course matches,
+     *                    otherwise null
+     */
+    public CourseSuggestion(String text, Type type, int courseCount, Long courseId) {
+        this.text = text;
+        this.type = type;
+        this.courseCount = courseCount;
+        this.courseId = courseId;
+    }
+
+    // Getters and Setters
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public int getCourseCount() {
+        return courseCount;
+    }
+
+    public void setCourseCount(int courseCount) {
+        this.courseCount = courseCount;
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public void setCourseId(Long courseId) {
+        this.courseId = courseId;
+    }
+}
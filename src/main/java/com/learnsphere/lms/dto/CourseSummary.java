@@ -0,0 +1,58 @@
+package com.learnsphere.lms.dto;
+
+/**
+ * Lightweight course view for listings
+ * Carries only the columns needed to render a course card, so list queries
+ * never read the TEXT description column and return no managed entities
+ */
+public class CourseSummary {
+
+    private Long id;
+    private String title;
+    private String instructorName;
+    private String photoUrl;
+
+    public CourseSummary() {
+    }
+
+    // Constructor used by JPQL "SELECT new" projections
+    public CourseSummary(Long id, String title, String instructorName, String photoUrl) {
+        this.id = id;
+        this.title = title;
+        this.instructorName = instructorName;
+        this.photoUrl = photoUrl;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getInstructorName() {
+        return instructorName;
+    }
+
+    public void setInstructorName(String instructorName) {
+        this.instructorName = instructorName;
+    }
+
+    public String getPhotoUrl() {
+        return photoUrl;
+    }
+
+    public void setPhotoUrl(String photoUrl) {
+        this.photoUrl = photoUrl;
+    }
+}
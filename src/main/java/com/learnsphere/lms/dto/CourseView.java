@@ -0,0 +1,29 @@
+package com.learnsphere.lms.dto;
+
+import java.util.Locale;
+
+/**
+ * Representation requested for course listings via the "view" query parameter
+ * SUMMARY returns CourseSummary rows; FULL returns complete Course entities
+ * including the description
+ */
+public enum CourseView {
+
+    SUMMARY,
+    FULL;
+
+    /**
+     * Parse the "view" query parameter (case-insensitive)
+     *
+     * @param value the parameter value
+     * @return the matching view
+     * @throws IllegalArgumentException if the value is not a known view
+     */
+    public static CourseView fromParam(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown view '" + value + "', expected 'summary' or 'full'");
+        }
+    }
+}
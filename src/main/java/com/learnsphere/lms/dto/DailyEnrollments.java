@@ -0,0 +1,47 @@
+package com.learnsphere.lms.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Number of enrollments in a course on one day
+ */
+public class DailyEnrollments {
+
+    private Long courseId;
+    private LocalDate date;
+    private long enrollments;
+
+    public DailyEnrollments() {
+    }
+
+    public DailyEnrollments(Long courseId, LocalDate date, long enrollments) {
+        this.courseId = courseId;
+        this.date = date;
+        this.enrollments = enrollments;
+    }
+
+    // Getters and Setters
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public void setCourseId(Long courseId) {
+        this.courseId = courseId;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public long getEnrollments() {
+        return enrollments;
+    }
+
+    public void setEnrollments(long enrollments) {
+        this.enrollments = enrollments;
+    }
+}
@@ -0,0 +1,36 @@
+package com.learnsphere.lms.dto;
+
+/**
+ * A course's enrollment counter
+ */
+public class EnrollmentCount {
+
+    private Long courseId;
+    private long count;
+
+    public EnrollmentCount() {
+    }
+
+    // Constructor used by JPQL "SELECT new" projections
+    public EnrollmentCount(Long courseId, long count) {
+        this.courseId = courseId;
+        this.count = count;
+    }
+
+    // Getters and Setters
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public void setCourseId(Long courseId) {
+        this.courseId = courseId;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
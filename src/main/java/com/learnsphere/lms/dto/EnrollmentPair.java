@@ -0,0 +1,56 @@
+package com.learnsphere.lms.dto;
+
+import java.util.Objects;
+
+/**
+ * A (user, course) pair used by bulk enrollment requests and set-based
+ * existence checks
+ */
+public class EnrollmentPair {
+
+    private Long userId;
+    private Long courseId;
+
+    public EnrollmentPair() {
+    }
+
+    // Constructor used by JPQL "SELECT new" projections
+    public EnrollmentPair(Long userId, Long courseId) {
+        this.userId = userId;
+        this.courseId = courseId;
+    }
+
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public void setCourseId(Long courseId) {
+        this.courseId = courseId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof EnrollmentPair)) {
+            return false;
+        }
+        EnrollmentPair that = (EnrollmentPair) o;
+        return Objects.equals(userId, that.userId) && Objects.equals(courseId, that.courseId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, courseId);
+    }
+}
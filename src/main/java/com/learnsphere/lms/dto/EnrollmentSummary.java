@@ -0,0 +1,110 @@
+package com.learnsphere.lms.dto;
+
+import com.learnsphere.lms.model.Enrollment;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat enrollment view for rosters and enrollment responses
+ * Exposes only the identifying user and course fields, never the user's
+ * password hash or the course description
+ */
+public class EnrollmentSummary {
+
+    private Long id;
+    private Long userId;
+    private String userName;
+    private String userEmail;
+    private Long courseId;
+    private String courseTitle;
+    private LocalDateTime enrolledAt;
+
+    public EnrollmentSummary() {
+    }
+
+    // Constructor used by JPQL "SELECT new" projections
+    public EnrollmentSummary(Long id, Long userId, String userName, String userEmail,
+            Long courseId, String courseTitle, LocalDateTime enrolledAt) {
+        this.id = id;
+        this.userId = userId;
+        this.userName = userName;
+        this.userEmail = userEmail;
+        this.courseId = courseId;
+        this.courseTitle = courseTitle;
+        this.enrolledAt = enrolledAt;
+    }
+
+    /**
+     * Build a summary from an enrollment whose user and course are loaded
+     *
+     * @param enrollment the enrollment
+     * @return the summary
+     */
+    public static EnrollmentSummary from(Enrollment enrollment) {
+        return new EnrollmentSummary(
+                enrollment.getId(),
+                enrollment.getUser().getId(),
+                enrollment.getUser().getName(),
+                enrollment.getUser().getEmail(),
+                enrollment.getCourse().getId(),
+                enrollment.getCourse().getTitle(),
+                enrollment.getEnrolledAt());
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public void setUserName(String userName) {
+        this.userName = userName;
+    }
+
+    public String getUserEmail() {
+        return userEmail;
+    }
+
+    public void setUserEmail(String userEmail) {
+        this.userEmail = userEmail;
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public void setCourseId(Long courseId) {
+        this.courseId = courseId;
+    }
+
+    public String getCourseTitle() {
+        return courseTitle;
+    }
+
+    public void setCourseTitle(String courseTitle) {
+        this.courseTitle = courseTitle;
+    }
+
+    public LocalDateTime getEnrolledAt() {
+        return enrolledAt;
+    }
+
+    public void setEnrolledAt(LocalDateTime enrolledAt) {
+        this.enrolledAt = enrolledAt;
+    }
+}
@@ -0,0 +1,26 @@
+package com.learnsphere.lms.dto;
+
+/**
+ * Course card with its enrollment count, for popularity rankings
+ */
+public class PopularCourse extends CourseSummary {
+
+    private long enrollmentCount;
+
+    public PopularCourse() {
+    }
+
+    public PopularCourse(Long id, String title, String instructorName, String photoUrl, long enrollmentCount) {
+        super(id, title, instructorName, photoUrl);
+        this.enrollmentCount = enrollmentCount;
+    }
+
+    // Getters and Setters
+    public long getEnrollmentCount() {
+        return enrollmentCount;
+    }
+
+    public void setEnrollmentCount(long enrollmentCount) {
+        this.enrollmentCount = enrollmentCount;
+    }
+}
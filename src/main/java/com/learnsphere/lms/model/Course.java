@@ -1,5 +1,7 @@
 package com.learnsphere.lms.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 
@@ -24,6 +26,18 @@ public class Course {
     @Column(name = "photo_url")
     private String photoUrl;
 
+    // Incremented on every update; used as the course ETag
+    @Version
+    @Column(nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
+    // Maintained by atomic UPDATEs in the enrollment transactions; never
+    // written by saving the entity, so course edits cannot overwrite it
+    @Column(name = "enrollment_count", nullable = false, updatable = false)
+    @JsonIgnore
+    private long enrollmentCount;
+
     // Default constructor
     public Course() {
     }
@@ -85,6 +99,22 @@ public class Course {
         this.photoUrl = photoUrl;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public long getEnrollmentCount() {
+        return enrollmentCount;
+    }
+
+    public void setEnrollmentCount(long enrollmentCount) {
+        this.enrollmentCount = enrollmentCount;
+    }
+
     @Override
     public String toString() {
         return "Course{" +
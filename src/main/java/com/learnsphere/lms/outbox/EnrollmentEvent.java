@@ -0,0 +1,59 @@
+package com.learnsphere.lms.outbox;
+
+import java.time.LocalDateTime;
+
+/**
+ * A student was enrolled in a course
+ */
+public class EnrollmentEvent {
+
+    public static final String TYPE = "ENROLLMENT_CREATED";
+
+    // Outbox row id; the same event is always delivered with the same id
+    private Long eventId;
+    private Long userId;
+    private Long courseId;
+    private LocalDateTime enrolledAt;
+
+    public EnrollmentEvent() {
+    }
+
+    public EnrollmentEvent(Long userId, Long courseId, LocalDateTime enrolledAt) {
+        this.userId = userId;
+        this.courseId = courseId;
+        this.enrolledAt = enrolledAt;
+    }
+
+    // Getters and Setters
+    public Long getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(Long eventId) {
+        this.eventId = eventId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public void setCourseId(Long courseId) {
+        this.courseId = courseId;
+    }
+
+    public LocalDateTime getEnrolledAt() {
+        return enrolledAt;
+    }
+
+    public void setEnrolledAt(LocalDateTime enrolledAt) {
+        this.enrolledAt = enrolledAt;
+    }
+}
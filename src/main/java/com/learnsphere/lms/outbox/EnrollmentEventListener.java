@@ -0,0 +1,28 @@
+package com.learnsphere.lms.outbox;
+
+import java.util.List;
+
+/**
+ * In-process consumer of enrollment events; every bean implementing it is
+ * called by OutboxDispatcher
+ *
+ * Delivery is at least once: a batch is redelivered if any listener throws,
+ * including to listeners that already handled it, so implementations must be
+ * idempotent (EnrollmentEvent.getEventId() is stable across redeliveries).
+ * Listeners run on the dispatcher thread inside its transaction, so slow work
+ * slows the drain rather than enrollments. Database writes joining that
+ * transaction commit together with the removal of the events, so they are
+ * idempotent without tracking event ids.
+ *
+ * Each event is delivered on one node only (whichever locks it first), so a
+ * listener must update shared state such as the database or an external
+ * system. Node-local views must read shared data instead; none of them may
+ * be fed from here.
+ */
+public interface EnrollmentEventListener {
+
+    /**
+     * @param events a batch of events, oldest first
+     */
+    void onEnrollments(List<EnrollmentEvent> events);
+}
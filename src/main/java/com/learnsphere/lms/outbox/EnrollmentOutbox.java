@@ -0,0 +1,55 @@
+package com.learnsphere.lms.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learnsphere.lms.dto.EnrollmentPair;
+import com.learnsphere.lms.model.OutboxEvent;
+import com.learnsphere.lms.repository.OutboxEventRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records enrollment events in the outbox table
+ */
+@Component
+public class EnrollmentOutbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public EnrollmentOutbox(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Record that enrollments were created, with one JDBC batch
+     * Must join the transaction that inserts the enrollments, so the events
+     * commit or roll back with them
+     *
+     * @param pairs      the enrolled (user, course) pairs
+     * @param enrolledAt the enrollment time
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enrollmentsCreated(List<EnrollmentPair> pairs, LocalDateTime enrolledAt) {
+        List<OutboxEvent> events = new ArrayList<>(pairs.size());
+        for (EnrollmentPair pair : pairs) {
+            EnrollmentEvent event = new EnrollmentEvent(pair.getUserId(), pair.getCourseId(), enrolledAt);
+            events.add(new OutboxEvent(EnrollmentEvent.TYPE, toJson(event), enrolledAt));
+        }
+        outboxEventRepository.insertAll(events);
+    }
+
+    private String toJson(EnrollmentEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize enrollment event", e);
+        }
+    }
+}
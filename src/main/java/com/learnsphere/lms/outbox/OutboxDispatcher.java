@@ -0,0 +1,196 @@
+package com.learnsphere.lms.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learnsphere.lms.model.OutboxEvent;
+import com.learnsphere.lms.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the outbox table to the EnrollmentEventListener beans
+ *
+ * Each run locks up to batch-size of the oldest events (SKIP LOCKED, so
+ * several nodes can drain in parallel), hands them to every listener and
+ * deletes them, all in one transaction. A failure rolls the batch back and
+ * retries its events one by one, so a single bad event cannot hold up the
+ * rest; an event that fails max-attempts times is left in the table and no
+ * longer delivered.
+ *
+ * Backpressure: enrollments only ever add a row, so bursts queue in the table
+ * and listeners take them at their own pace, at most max-batches-per-run
+ * batches per poll. Metrics: outbox.lag (age of the oldest pending event at
+ * the last poll), outbox.events.delivered (events handed to at least one
+ * listener), outbox.events.failed and outbox.dispatch (time per batch).
+ *
+ * Events are only drained while at least one listener is registered;
+ * otherwise they wait in the table for one.
+ */
+@Component
+public class OutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<EnrollmentEventListener> listeners;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final int maxAttempts;
+
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter delivered;
+    private final Counter failed;
+    private final Timer dispatchTimer;
+
+    /**
+     * @param batchSize        events locked and delivered per transaction
+     * @param maxBatchesPerRun batches drained per poll before yielding
+     * @param maxAttempts      failed deliveries before an event is given up on
+     */
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper,
+            ObjectProvider<EnrollmentEventListener> listeners, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${outbox.batch-size:200}") int batchSize,
+            @Value("${outbox.max-batches-per-run:10}") int maxBatchesPerRun,
+            @Value("${outbox.max-attempts:10}") int maxAttempts) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.listeners = listeners;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.maxAttempts = maxAttempts;
+
+        Gauge.builder("outbox.lag", lagMillis, lag -> lag.get() / 1000.0)
+                .description("Age of the oldest undelivered outbox event at the last poll")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.delivered = Counter.builder("outbox.events.delivered").register(meterRegistry);
+        this.failed = Counter.builder("outbox.events.failed").register(meterRegistry);
+        this.dispatchTimer = Timer.builder("outbox.dispatch").register(meterRegistry);
+    }
+
+    /**
+     * Drain full batches until the outbox is empty or the per-run limit is hit
+     */
+    @Scheduled(fixedDelayString = "${outbox.poll-interval:500ms}")
+    public void dispatch() {
+        if (listeners.orderedStream().findAny().isEmpty()) {
+            return;
+        }
+        for (int run = 0; run < maxBatchesPerRun; run++) {
+            if (dispatchBatch() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Deliver one batch in one transaction
+     *
+     * @return the number of events locked, delivered or not
+     */
+    private int dispatchBatch() {
+        List<Long> ids;
+        Timer.Sample sample = Timer.start();
+        try {
+            Batch batch = transactionTemplate.execute(status -> {
+                List<OutboxEvent> events = outboxEventRepository.lockNextBatch(maxAttempts, Limit.of(batchSize));
+                updateLag(events);
+                if (events.isEmpty()) {
+                    return new Batch(0, 0);
+                }
+                int deliveredEvents = deliver(events);
+                outboxEventRepository.deleteDelivered(events.stream().map(OutboxEvent::getId).toList());
+                return new Batch(events.size(), deliveredEvents);
+            });
+            delivered.increment(batch.delivered());
+            return batch.locked();
+        } catch (RuntimeException e) {
+            log.warn("Outbox batch failed, retrying its events one by one", e);
+        } finally {
+            sample.stop(dispatchTimer);
+        }
+
+        // The batch rolled back; find what it held and isolate the failure
+        ids = transactionTemplate.execute(status -> outboxEventRepository
+                .lockNextBatch(maxAttempts, Limit.of(batchSize)).stream().map(OutboxEvent::getId).toList());
+        ids.forEach(this::dispatchOne);
+        return ids.size();
+    }
+
+    private void dispatchOne(Long id) {
+        try {
+            Integer deliveredEvents = transactionTemplate.execute(status -> outboxEventRepository
+                    .lockById(id, maxAttempts)
+                    .map(event -> {
+                        int count = deliver(List.of(event));
+                        outboxEventRepository.deleteDelivered(List.of(id));
+                        return count;
+                    })
+                    .orElse(0));
+            delivered.increment(deliveredEvents);
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.error("Outbox event {} could not be delivered", id, e);
+            transactionTemplate.executeWithoutResult(status -> outboxEventRepository.incrementAttempts(id));
+        }
+    }
+
+    /**
+     * Hand a batch to every listener
+     *
+     * @return the number of events at least one listener received
+     */
+    private int deliver(List<OutboxEvent> batch) {
+        List<EnrollmentEvent> events = batch.stream()
+                .filter(event -> EnrollmentEvent.TYPE.equals(event.getEventType()))
+                .map(this::toEnrollmentEvent)
+                .toList();
+        if (events.isEmpty()) {
+            return 0;
+        }
+        List<EnrollmentEventListener> receivers = listeners.orderedStream().toList();
+        receivers.forEach(listener -> listener.onEnrollments(events));
+        return receivers.isEmpty() ? 0 : events.size();
+    }
+
+    private EnrollmentEvent toEnrollmentEvent(OutboxEvent event) {
+        try {
+            EnrollmentEvent enrollment = objectMapper.readValue(event.getPayload(), EnrollmentEvent.class);
+            enrollment.setEventId(event.getId());
+            return enrollment;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Malformed payload in outbox event " + event.getId(), e);
+        }
+    }
+
+    private void updateLag(List<OutboxEvent> batch) {
+        lagMillis.set(batch.isEmpty() ? 0
+                : Math.max(0, Duration.between(batch.get(0).getCreatedAt(), LocalDateTime.now()).toMillis()));
+    }
+
+    /**
+     * Events locked by one batch and how many of them reached a listener
+     */
+    private record Batch(int locked, int delivered) {
+    }
+}
@@ -1,9 +1,149 @@
 package com.learnsphere.lms.repository;
 
+import com.learnsphere.lms.dto.CourseSummary;
+import com.learnsphere.lms.dto.EnrollmentCount;
+import com.learnsphere.lms.dto.PopularCourse;
 import com.learnsphere.lms.model.Course;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface CourseRepository extends JpaRepository<Course, Long> {
+
+    /**
+     * Fetch the next page of courses after the given id (keyset pagination)
+     *
+     * @param afterId the last id of the previous page (0 for the first page)
+     * @param limit   the maximum number of courses to return
+     * @return courses with id greater than afterId, ordered by id
+     */
+    List<Course> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    /**
+     * Stream all courses ordered by id without materializing the full list
+     * Integer.MIN_VALUE fetch size makes MySQL Connector/J stream rows one at a
+     * time instead of buffering the whole result set. Must be consumed inside a
+     * transaction and closed by the caller.
+     *
+     * @return stream of all courses
+     */
+    @Query("SELECT c FROM Course c ORDER BY c.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Course> streamAllOrderedById();
+
+    /**
+     * Fetch summaries of all courses ordered by id
+     *
+     * @return list of course summaries
+     */
+    @Query("SELECT new com.learnsphere.lms.dto.CourseSummary(c.id, c.title, c.instructorName, c.photoUrl) "
+            + "FROM Course c ORDER BY c.id")
+    List<CourseSummary> findAllSummaries();
+
+    /**
+     * Fetch the next page of course summaries after the given id (keyset
+     * pagination)
+     *
+     * @param afterId  the last id of the previous page (0 for the first page)
+     * @param pageable page request whose size is the maximum number of rows
+     * @return course summaries with id greater than afterId, ordered by id
+     */
+    @Query("SELECT new com.learnsphere.lms.dto.CourseSummary(c.id, c.title, c.instructorName, c.photoUrl) "
+            + "FROM Course c WHERE c.id > :afterId ORDER BY c.id")
+    List<CourseSummary> findSummariesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Stream summaries of all courses ordered by id
+     * Same streaming behaviour as streamAllOrderedById()
+     *
+     * @return stream of course summaries
+     */
+    @Query("SELECT new com.learnsphere.lms.dto.CourseSummary(c.id, c.title, c.instructorName, c.photoUrl) "
+            + "FROM Course c ORDER BY c.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    Stream<CourseSummary> streamAllSummaries();
+
+    /**
+     * Fetch which of the given ids exist
+     * One set-based query instead of a lookup per id
+     *
+     * @param ids the course IDs to check
+     * @return the ids that exist
+     */
+    @Query("SELECT c.id FROM Course c WHERE c.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Add to a course's enrollment counter
+     * A single atomic UPDATE, so concurrent enrollments never lose increments;
+     * must run in the transaction that inserts or deletes the enrollments
+     *
+     * @param courseId the course ID
+     * @param delta    the number of enrollments added (negative when removed)
+     * @return the number of rows updated (0 if the course does not exist)
+     */
+    @Modifying
+    @Query("UPDATE Course c SET c.enrollmentCount = c.enrollmentCount + :delta WHERE c.id = :courseId")
+    int addToEnrollmentCount(@Param("courseId") Long courseId, @Param("delta") long delta);
+
+    /**
+     * Take a user's enrollments off their courses' counters
+     * A single UPDATE over every course the user is enrolled in, once each
+     * since a user enrolls in a course at most once; must run in the
+     * transaction that deletes the enrollments, before they are deleted
+     *
+     * @param userId the user ID
+     * @return the number of courses updated
+     */
+    @Modifying
+    @Query("UPDATE Course c SET c.enrollmentCount = c.enrollmentCount - 1 "
+            + "WHERE c.id IN (SELECT e.course.id FROM Enrollment e WHERE e.user.id = :userId)")
+    int removeEnrollmentsOfUser(@Param("userId") Long userId);
+
+    /**
+     * Fetch a course's enrollment counter
+     * One primary-key lookup instead of a COUNT over the enrollments
+     *
+     * @param courseId the course ID
+     * @return the enrollment count, or null if the course does not exist
+     */
+    @Query("SELECT c.enrollmentCount FROM Course c WHERE c.id = :courseId")
+    Long findEnrollmentCount(@Param("courseId") Long courseId);
+
+    /**
+     * Fetch the enrollment counters of the given courses
+     *
+     * @param ids the course IDs
+     * @return the counters of the courses that exist
+     */
+    @Query("SELECT new com.learnsphere.lms.dto.EnrollmentCount(c.id, c.enrollmentCount) "
+            + "FROM Course c WHERE c.id IN :ids")
+    List<EnrollmentCount> findEnrollmentCounts(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Fetch the most enrolled courses with their counters
+     * Walks idx_courses_enrollment_count from the top and stops at the limit;
+     * ties go to the older course
+     *
+     * @param limit the maximum number of courses
+     * @return courses with at least one enrollment, most enrolled first
+     */
+    @Query("SELECT new com.learnsphere.lms.dto.PopularCourse(c.id, c.title, c.instructorName, c.photoUrl, "
+            + "c.enrollmentCount) FROM Course c WHERE c.enrollmentCount > 0 ORDER BY c.enrollmentCount DESC, c.id")
+    List<PopularCourse> findMostEnrolled(Limit limit);
 }
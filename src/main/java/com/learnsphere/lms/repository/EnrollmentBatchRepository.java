@@ -0,0 +1,25 @@
+package com.learnsphere.lms.repository;
+
+import com.learnsphere.lms.dto.EnrollmentPair;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC batch operations on enrollments
+ * Enrollment ids use IDENTITY generation, which stops Hibernate from batching
+ * inserts, so bulk inserts bypass JPA
+ */
+public interface EnrollmentBatchRepository {
+
+    /**
+     * Insert enrollments with a single JDBC batch
+     * Does not check for duplicates; a duplicate pair fails the batch with a
+     * DataIntegrityViolationException
+     *
+     * @param pairs      the (user, course) pairs to insert
+     * @param enrolledAt the enrollment time for every row
+     * @return the update count per row
+     */
+    int[] insertAll(List<EnrollmentPair> pairs, LocalDateTime enrolledAt);
+}
@@ -0,0 +1,46 @@
+package com.learnsphere.lms.repository;
+
+import com.learnsphere.lms.dto.EnrollmentPair;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JdbcTemplate implementation of EnrollmentBatchRepository
+ * With rewriteBatchedStatements enabled, MySQL Connector/J sends the batch as
+ * multi-row INSERT statements
+ */
+class EnrollmentBatchRepositoryImpl implements EnrollmentBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO enrollments (user_id, course_id, enrolled_at) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    EnrollmentBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int[] insertAll(List<EnrollmentPair> pairs, LocalDateTime enrolledAt) {
+        Timestamp timestamp = Timestamp.valueOf(enrolledAt);
+        return jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                EnrollmentPair pair = pairs.get(i);
+                ps.setLong(1, pair.getUserId());
+                ps.setLong(2, pair.getCourseId());
+                ps.setTimestamp(3, timestamp);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return pairs.size();
+            }
+        });
+    }
+}
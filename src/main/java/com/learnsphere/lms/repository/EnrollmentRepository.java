@@ -1,15 +1,108 @@
 package com.learnsphere.lms.repository;
 
+import com.learnsphere.lms.dto.CourseSummary;
+import com.learnsphere.lms.dto.EnrollmentPair;
+import com.learnsphere.lms.dto.EnrollmentSummary;
+import com.learnsphere.lms.model.Course;
 import com.learnsphere.lms.model.Enrollment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
+public interface EnrollmentRepository extends JpaRepository<Enrollment, Long>, EnrollmentBatchRepository {
 
-    List<Enrollment> findByUserId(Long userId);
+    /**
+     * Fetch a user's enrollments with user and course loaded in the same query
+     * Filters on enrollments.user_id itself so the unique index is used; an
+     * entity graph would add a second join and filter on users.id instead
+     *
+     * @param userId the user ID
+     * @return list of enrollments
+     */
+    @Query("SELECT e FROM Enrollment e JOIN FETCH e.user JOIN FETCH e.course WHERE e.user.id = :userId")
+    List<Enrollment> findByUserId(@Param("userId") Long userId);
 
-    List<Enrollment> findByCourseId(Long courseId);
+    /**
+     * Fetch a course's enrollments with user and course loaded in the same query
+     * Filters on enrollments.course_id, as findByUserId does on user_id
+     *
+     * @param courseId the course ID
+     * @return list of enrollments
+     */
+    @Query("SELECT e FROM Enrollment e JOIN FETCH e.user JOIN FETCH e.course WHERE e.course.id = :courseId")
+    List<Enrollment> findByCourseId(@Param("courseId") Long courseId);
+
+    /**
+     * Fetch the full courses a user is enrolled in with a single join
+     *
+     * @param userId the user ID
+     * @return courses ordered by course id
+     */
+    @Query("SELECT c FROM Enrollment e JOIN e.course c WHERE e.user.id = :userId ORDER BY c.id")
+    List<Course> findCoursesByUserId(@Param("userId") Long userId);
+
+    /**
+     * Fetch the roster of a course as flat rows with a single join
+     *
+     * @param courseId the course ID
+     * @return enrollment summaries ordered by enrollment time
+     */
+    @Query("SELECT new com.learnsphere.lms.dto.EnrollmentSummary(e.id, u.id, u.name, u.email, c.id, c.title, e.enrolledAt) "
+            + "FROM Enrollment e JOIN e.user u JOIN e.course c WHERE c.id = :courseId ORDER BY e.enrolledAt")
+    List<EnrollmentSummary> findRosterByCourseId(@Param("courseId") Long courseId);
+
+    /**
+     * Check whether a user is enrolled in a course
+     * Single probe on the (user_id, course_id) unique index; the derived
+     * query left-joined users and courses and scanned the whole index
+     *
+     * @param userId   the user ID
+     * @param courseId the course ID
+     * @return true if the enrollment exists
+     */
+    @Query("SELECT CASE WHEN COUNT(e) > 0 THEN TRUE ELSE FALSE END FROM Enrollment e "
+            + "WHERE e.user.id = :userId AND e.course.id = :courseId")
+    boolean existsByUserIdAndCourseId(@Param("userId") Long userId, @Param("courseId") Long courseId);
+
+    /**
+     * Fetch summaries of the courses a user is enrolled in
+     *
+     * @param userId the user ID
+     * @return course summaries ordered by course id
+     */
+    @Query("SELECT new com.learnsphere.lms.dto.CourseSummary(c.id, c.title, c.instructorName, c.photoUrl) "
+            + "FROM Enrollment e JOIN e.course c WHERE e.user.id = :userId ORDER BY c.id")
+    List<CourseSummary> findCourseSummariesByUserId(@Param("userId") Long userId);
+
+    /**
+     * Fetch a version string for a user's enrolled courses
+     * Built from the enrollment count, the newest enrollment id and the sum of
+     * the enrolled course versions, so it changes whenever the user enrolls,
+     * leaves a course, or one of their courses is updated
+     *
+     * @param userId the user ID
+     * @return the version string
+     */
+    @Query("SELECT CONCAT(STR(COUNT(e)), '.', STR(COALESCE(MAX(e.id), 0)), '.', STR(COALESCE(SUM(c.version), 0))) "
+            + "FROM Enrollment e JOIN e.course c WHERE e.user.id = :userId")
+    String findEnrollmentsVersionByUserId(@Param("userId") Long userId);
+
+    /**
+     * Fetch which of the given users are enrolled in which of the given courses
+     * One set-based query for a whole bulk chunk; the result can contain pairs
+     * that were not requested, so callers match pairs themselves
+     *
+     * @param userIds   the user IDs
+     * @param courseIds the course IDs
+     * @return existing (user, course) pairs among the given ids
+     */
+    @Query("SELECT new com.learnsphere.lms.dto.EnrollmentPair(e.user.id, e.course.id) "
+            + "FROM Enrollment e WHERE e.user.id IN :userIds AND e.course.id IN :courseIds")
+    List<EnrollmentPair> findExistingPairs(@Param("userIds") Collection<Long> userIds,
+            @Param("courseIds") Collection<Long> courseIds);
 }
@@ -0,0 +1,69 @@
+package com.learnsphere.lms.repository;
+
+import com.learnsphere.lms.dto.DailyEnrollments;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Per-course daily enrollment totals in course_enrollment_daily
+ * The table has no entity; rows are only ever added to with upserts
+ */
+@Repository
+public class EnrollmentStatsRepository {
+
+    // Selecting from courses skips courses deleted since the enrollment
+    private static final String ADD_SQL = "INSERT INTO course_enrollment_daily (course_id, enrollment_date, enrollments) "
+            + "SELECT c.id, ?, ? FROM courses c WHERE c.id = ? "
+            + "ON DUPLICATE KEY UPDATE enrollments = enrollments + VALUES(enrollments)";
+
+    private static final String FIND_SQL = "SELECT course_id, enrollment_date, enrollments FROM course_enrollment_daily "
+            + "WHERE course_id = ? AND enrollment_date >= ? ORDER BY enrollment_date";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EnrollmentStatsRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Add to the daily totals with a single JDBC batch
+     *
+     * @param counts enrollments to add per course and day
+     * @return the update count per row
+     */
+    public int[] addAll(List<DailyEnrollments> counts) {
+        return jdbcTemplate.batchUpdate(ADD_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                DailyEnrollments count = counts.get(i);
+                ps.setDate(1, Date.valueOf(count.getDate()));
+                ps.setLong(2, count.getEnrollments());
+                ps.setLong(3, count.getCourseId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return counts.size();
+            }
+        });
+    }
+
+    /**
+     * Fetch a course's daily totals from a date on; one primary key range scan
+     *
+     * @param courseId the course ID
+     * @param from     the first day
+     * @return the days with at least one enrollment, oldest first
+     */
+    public List<DailyEnrollments> findByCourseIdFrom(Long courseId, LocalDate from) {
+        return jdbcTemplate.query(FIND_SQL, (rs, rowNum) -> new DailyEnrollments(rs.getLong(1),
+                rs.getDate(2).toLocalDate(), rs.getLong(3)), courseId, Date.valueOf(from));
+    }
+}
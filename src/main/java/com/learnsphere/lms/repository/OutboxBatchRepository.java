@@ -0,0 +1,21 @@
+package com.learnsphere.lms.repository;
+
+import com.learnsphere.lms.model.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * JDBC batch operations on outbox events
+ * Outbox ids use IDENTITY generation, so bulk inserts bypass JPA
+ */
+public interface OutboxBatchRepository {
+
+    /**
+     * Insert events with a single JDBC batch
+     * Must run inside the transaction that makes the change the events describe
+     *
+     * @param events the events to insert
+     * @return the update count per row
+     */
+    int[] insertAll(List<OutboxEvent> events);
+}
@@ -0,0 +1,43 @@
+package com.learnsphere.lms.repository;
+
+import com.learnsphere.lms.model.OutboxEvent;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * JdbcTemplate implementation of OutboxBatchRepository
+ */
+class OutboxBatchRepositoryImpl implements OutboxBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO outbox_events (event_type, payload, created_at, attempts) "
+            + "VALUES (?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    OutboxBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int[] insertAll(List<OutboxEvent> events) {
+        return jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                OutboxEvent event = events.get(i);
+                ps.setString(1, event.getEventType());
+                ps.setString(2, event.getPayload());
+                ps.setTimestamp(3, Timestamp.valueOf(event.getCreatedAt()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return events.size();
+            }
+        });
+    }
+}
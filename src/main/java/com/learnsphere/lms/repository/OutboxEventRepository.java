@@ -0,0 +1,69 @@
+package com.learnsphere.lms.repository;
+
+import com.learnsphere.lms.model.OutboxEvent;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long>, OutboxBatchRepository {
+
+    // External form of LockMode.UPGRADE_SKIPLOCKED, a write lock taken with
+    // SKIP LOCKED where the database supports it; hint values must be constants
+    String UPGRADE_SKIPLOCKED = "upgrade-skiplocked";
+
+    /**
+     * Lock the oldest deliverable events
+     * SKIP LOCKED lets dispatchers on several nodes drain the outbox in
+     * parallel without waiting for or delivering each other's rows. Must run
+     * in a transaction; the locks are held until it ends
+     *
+     * @param maxAttempts events with this many failed attempts are skipped
+     * @param limit       the maximum number of events
+     * @return the locked events, oldest first
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_LOCK_MODE, value = UPGRADE_SKIPLOCKED))
+    @Query("SELECT e FROM OutboxEvent e WHERE e.attempts < :maxAttempts ORDER BY e.id")
+    List<OutboxEvent> lockNextBatch(@Param("maxAttempts") int maxAttempts, Limit limit);
+
+    /**
+     * Lock one deliverable event, skipping it if another dispatcher holds it
+     *
+     * @param id          the event ID
+     * @param maxAttempts events with this many failed attempts are skipped
+     * @return the locked event, or empty if gone, locked or given up on
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_LOCK_MODE, value = UPGRADE_SKIPLOCKED))
+    @Query("SELECT e FROM OutboxEvent e WHERE e.id = :id AND e.attempts < :maxAttempts")
+    Optional<OutboxEvent> lockById(@Param("id") Long id, @Param("maxAttempts") int maxAttempts);
+
+    /**
+     * Record a failed delivery attempt
+     *
+     * @param id the event ID
+     * @return the number of rows updated
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1 WHERE e.id = :id")
+    int incrementAttempts(@Param("id") Long id);
+
+    /**
+     * Delete delivered events with one statement
+     *
+     * @param ids the event IDs
+     * @return the number of rows deleted
+     */
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.id IN :ids")
+    int deleteDelivered(@Param("ids") Collection<Long> ids);
+}
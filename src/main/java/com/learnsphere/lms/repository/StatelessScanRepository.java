@@ -0,0 +1,69 @@
+package com.learnsphere.lms.repository;
+
+import com.learnsphere.lms.model.Course;
+import com.learnsphere.lms.model.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.StatelessSession;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Large list reads through a Hibernate StatelessSession
+ *
+ * A stateless session has no persistence context: rows become entities
+ * without being registered, snapshotted for dirty checking or cached, so a
+ * scan of N rows allocates N entities and nothing per entity on top. The
+ * session runs on the current read-only transaction's connection, so replica
+ * routing applies. The entities come back detached; lazy associations that
+ * were not fetched by the query cannot be loaded later.
+ */
+@Repository
+@Transactional(readOnly = true)
+public class StatelessScanRepository {
+
+    private final EntityManager entityManager;
+
+    public StatelessScanRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Every course, ordered by id
+     *
+     * @return detached courses
+     */
+    public List<Course> findAllCourses() {
+        return scan(session -> session.createSelectionQuery("FROM Course c ORDER BY c.id", Course.class)
+                .getResultList());
+    }
+
+    /**
+     * Every user, ordered by id
+     *
+     * @return detached users (enrollments not loaded)
+     */
+    public List<User> findAllUsers() {
+        return scan(session -> session.createSelectionQuery("FROM User u ORDER BY u.id", User.class)
+                .getResultList());
+    }
+
+    /**
+     * Open a stateless session on the transaction's connection; closing it
+     * leaves the connection to the transaction
+     */
+    private <T> T scan(Function<StatelessSession, T> query) {
+        Session session = entityManager.unwrap(Session.class);
+        return session.doReturningWork(connection -> {
+            try (StatelessSession stateless = session.getSessionFactory()
+                    .withStatelessOptions()
+                    .connection(connection)
+                    .openStatelessSession()) {
+                return query.apply(stateless);
+            }
+        });
+    }
+}
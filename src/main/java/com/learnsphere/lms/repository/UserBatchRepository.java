@@ -0,0 +1,23 @@
+package com.learnsphere.lms.repository;
+
+import com.learnsphere.lms.model.User;
+
+import java.util.List;
+
+/**
+ * JDBC batch operations on users
+ * User ids use IDENTITY generation, which stops Hibernate from batching
+ * inserts, so bulk inserts bypass JPA
+ */
+public interface UserBatchRepository {
+
+    /**
+     * Insert users with a single JDBC batch
+     * Passwords must already be encoded. Does not check for duplicates; an
+     * existing email fails the batch with a DataIntegrityViolationException
+     *
+     * @param users the users to insert
+     * @return the update count per row
+     */
+    int[] insertAll(List<User> users);
+}
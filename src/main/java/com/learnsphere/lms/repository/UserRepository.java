@@ -2,12 +2,16 @@ package com.learnsphere.lms.repository;
 
 import com.learnsphere.lms.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserBatchRepository {
 
     /**
      * Find a user by their email address
@@ -24,4 +28,24 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return true if user exists, false otherwise
      */
     boolean existsByEmail(String email);
+
+    /**
+     * Fetch which of the given ids exist
+     * One set-based query instead of a lookup per id
+     *
+     * @param ids the user IDs to check
+     * @return the ids that exist
+     */
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Fetch which of the given emails are already registered
+     * One set-based query for a whole import chunk
+     *
+     * @param emails the email addresses to check
+     * @return the emails that exist
+     */
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
 }
@@ -0,0 +1,380 @@
+package com.learnsphere.lms.search;
+
+import com.learnsphere.lms.dto.CourseSuggestion;
+import com.learnsphere.lms.model.Course;
+import com.learnsphere.lms.repository.CourseRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Typeahead over course titles and instructor names
+ *
+ * Each distinct title and instructor name is a suggestion. It is inserted
+ * into a character trie once for every word it contains, keyed by the text
+ * from that word on, so "jav" finds both "Java Basics" and "Advanced Java".
+ * Every trie node caches the best MAX_SUGGESTIONS suggestions below it,
+ * ranked by how many courses share the text. A lookup is one walk down the
+ * prefix plus a copy of that cached list, independent of catalog size.
+ * Children are kept in sorted arrays rather than maps to keep nodes small.
+ *
+ * CourseService keeps the trie current for writes on this node; periodic
+ * rebuilds pick up writes made on other nodes.
+ */
+@Component
+public class CourseAutocomplete extends RebuildableCourseIndex<CourseAutocomplete.Trie> {
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    // Longer keys are cut; prefixes past this length are checked by filtering
+    private static final int MAX_KEY_LENGTH = 64;
+
+    public CourseAutocomplete(CourseRepository courseRepository) {
+        super(courseRepository, Trie::new);
+    }
+
+    /**
+     * Add or replace a course's title and instructor
+     *
+     * @param course the saved course
+     */
+    public void index(Course course) {
+        Long id = course.getId();
+        String title = course.getTitle();
+        String instructor = course.getInstructorName();
+        write(trie -> trie.put(id, title, instructor, true));
+    }
+
+    /**
+     * Remove a course's title and instructor
+     *
+     * @param courseId the course ID
+     */
+    public void remove(Long courseId) {
+        write(trie -> trie.remove(courseId));
+    }
+
+    /**
+     * Suggest titles and instructor names containing a word that starts with
+     * the prefix, most common first
+     *
+     * @param prefix the text typed so far
+     * @param limit  the maximum number of suggestions (at most MAX_SUGGESTIONS)
+     * @return the suggestions
+     */
+    public List<CourseSuggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        return read(trie -> trie.suggest(key, Math.min(limit, MAX_SUGGESTIONS)));
+    }
+
+    @Override
+    protected void load(Trie trie, Course course) {
+        trie.put(course.getId(), course.getTitle(), course.getInstructorName(), false);
+    }
+
+    @Override
+    protected void loaded(Trie trie) {
+        trie.rankAll();
+    }
+
+    /**
+     * Lowercase words separated by single spaces
+     */
+    private static String normalize(String text) {
+        return String.join(" ", Tokenizer.tokenize(text));
+    }
+
+    /**
+     * A distinct title or instructor name and the courses that have it
+     */
+    private static final class Term {
+
+        // Most common first; ties broken alphabetically for stable results
+        static final Comparator<Term> RANKING = Comparator
+                .comparingInt((Term term) -> term.courseIds.size()).reversed()
+                .thenComparing(term -> term.normalized)
+                .thenComparing(term -> term.type);
+
+        final CourseSuggestion.Type type;
+        final String text;
+        final String normalized;
+        final Set<Long> courseIds = new HashSet<>();
+
+        Term(CourseSuggestion.Type type, String text, String normalized) {
+            this.type = type;
+            this.text = text;
+            this.normalized = normalized;
+        }
+
+        /**
+         * Trie keys: the normalized text from each word on
+         */
+        List<String> keys() {
+            List<String> keys = new ArrayList<>();
+            for (int i = 0; i < normalized.length(); i++) {
+                if (i == 0 || normalized.charAt(i - 1) == ' ') {
+                    String key = normalized.substring(i);
+                    keys.add(key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key);
+                }
+            }
+            return keys;
+        }
+
+        CourseSuggestion toSuggestion() {
+            Long courseId = courseIds.size() == 1 ? courseIds.iterator().next() : null;
+            return new CourseSuggestion(text, type, courseIds.size(), courseId);
+        }
+    }
+
+    private static final class Node {
+
+        static final char[] NO_LABELS = new char[0];
+        static final Node[] NO_CHILDREN = new Node[0];
+        static final Term[] NO_TERMS = new Term[0];
+
+        // Sorted child labels and the children they lead to
+        char[] labels = NO_LABELS;
+        Node[] children = NO_CHILDREN;
+        // Terms whose key ends here
+        Term[] terminals = NO_TERMS;
+        // Best terms in this subtree, ranked
+        Term[] top = NO_TERMS;
+
+        Node child(char label) {
+            int i = Arrays.binarySearch(labels, label);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node addChild(char label) {
+            int i = Arrays.binarySearch(labels, label);
+            if (i >= 0) {
+                return children[i];
+            }
+            int at = -i - 1;
+            Node child = new Node();
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            newLabels[at] = label;
+            newChildren[at] = child;
+            System.arraycopy(labels, at, newLabels, at + 1, labels.length - at);
+            System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+            labels = newLabels;
+            children = newChildren;
+            return child;
+        }
+
+        void removeChild(char label) {
+            int i = Arrays.binarySearch(labels, label);
+            if (i < 0) {
+                return;
+            }
+            char[] newLabels = new char[labels.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, newLabels, 0, i);
+            System.arraycopy(children, 0, newChildren, 0, i);
+            System.arraycopy(labels, i + 1, newLabels, i, labels.length - i - 1);
+            System.arraycopy(children, i + 1, newChildren, i, children.length - i - 1);
+            labels = newLabels;
+            children = newChildren;
+        }
+
+        boolean isEmpty() {
+            return terminals.length == 0 && children.length == 0;
+        }
+
+        /**
+         * Recompute the cached top list from this node's terminals and its
+         * children's top lists
+         */
+        void rank() {
+            List<Term> candidates = new ArrayList<>(Arrays.asList(terminals));
+            for (Node child : children) {
+                candidates.addAll(Arrays.asList(child.top));
+            }
+            // The same term can sit under several children ("java and java")
+            top = candidates.stream()
+                    .distinct()
+                    .sorted(Term.RANKING)
+                    .limit(MAX_SUGGESTIONS)
+                    .toArray(Term[]::new);
+        }
+    }
+
+    /**
+     * The trie and the course data needed to update it; not thread-safe on its
+     * own
+     */
+    static final class Trie {
+
+        final Node root = new Node();
+        final Map<CourseSuggestion.Type, Map<String, Term>> terms = new EnumMap<>(CourseSuggestion.Type.class);
+        // course id -> its title and instructor terms
+        final Map<Long, List<Term>> courses = new HashMap<>();
+
+        Trie() {
+            for (CourseSuggestion.Type type : CourseSuggestion.Type.values()) {
+                terms.put(type, new HashMap<>());
+            }
+        }
+
+        /**
+         * @param rank false while bulk loading; rankAll() then ranks once
+         */
+        void put(Long id, String title, String instructor, boolean rank) {
+            remove(id);
+            List<Term> courseTerms = new ArrayList<>(2);
+            addTerm(id, CourseSuggestion.Type.TITLE, title, rank, courseTerms);
+            addTerm(id, CourseSuggestion.Type.INSTRUCTOR, instructor, rank, courseTerms);
+            courses.put(id, courseTerms);
+        }
+
+        void remove(Long id) {
+            List<Term> courseTerms = courses.remove(id);
+            if (courseTerms == null) {
+                return;
+            }
+            for (Term term : courseTerms) {
+                term.courseIds.remove(id);
+                if (term.courseIds.isEmpty()) {
+                    terms.get(term.type).remove(term.normalized);
+                    term.keys().forEach(key -> detach(key, term));
+                } else {
+                    term.keys().forEach(this::rerank);
+                }
+            }
+        }
+
+        List<CourseSuggestion> suggest(String prefix, int limit) {
+            boolean truncated = prefix.length() > MAX_KEY_LENGTH;
+            String key = truncated ? prefix.substring(0, MAX_KEY_LENGTH) : prefix;
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.child(key.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+            List<CourseSuggestion> suggestions = new ArrayList<>(Math.min(limit, node.top.length));
+            for (Term term : node.top) {
+                if (suggestions.size() == limit) {
+                    break;
+                }
+                // Keys were cut at MAX_KEY_LENGTH, so check the rest of a long prefix
+                if (!truncated || (" " + term.normalized).contains(" " + prefix)) {
+                    suggestions.add(term.toSuggestion());
+                }
+            }
+            return suggestions;
+        }
+
+        /**
+         * Rank every node bottom-up, after a bulk load
+         */
+        void rankAll() {
+            rankSubtree(root);
+        }
+
+        private void rankSubtree(Node node) {
+            for (Node child : node.children) {
+                rankSubtree(child);
+            }
+            node.rank();
+        }
+
+        private void addTerm(Long id, CourseSuggestion.Type type, String text, boolean rank,
+                List<Term> courseTerms) {
+            String normalized = normalize(text);
+            if (normalized.isEmpty()) {
+                return;
+            }
+            Term term = terms.get(type).computeIfAbsent(normalized, key -> new Term(type, text.trim(), key));
+            boolean added = term.courseIds.isEmpty();
+            term.courseIds.add(id);
+            courseTerms.add(term);
+            for (String key : term.keys()) {
+                if (added) {
+                    attach(key, term, rank);
+                } else if (rank) {
+                    rerank(key);
+                }
+            }
+        }
+
+        private void attach(String key, Term term, boolean rank) {
+            Node[] path = new Node[key.length() + 1];
+            path[0] = root;
+            for (int i = 0; i < key.length(); i++) {
+                path[i + 1] = path[i].addChild(key.charAt(i));
+            }
+            Node last = path[key.length()];
+            if (!Arrays.asList(last.terminals).contains(term)) {
+                last.terminals = Arrays.copyOf(last.terminals, last.terminals.length + 1);
+                last.terminals[last.terminals.length - 1] = term;
+            }
+            if (rank) {
+                rankPath(key, path);
+            }
+        }
+
+        private void detach(String key, Term term) {
+            Node[] path = path(key);
+            if (path == null) {
+                return;
+            }
+            Node last = path[key.length()];
+            last.terminals = Arrays.stream(last.terminals)
+                    .filter(terminal -> terminal != term)
+                    .toArray(Term[]::new);
+            rankPath(key, path);
+        }
+
+        /**
+         * Re-rank the nodes along a key after a term's course count changed
+         */
+        private void rerank(String key) {
+            Node[] path = path(key);
+            if (path != null) {
+                rankPath(key, path);
+            }
+        }
+
+        private Node[] path(String key) {
+            Node[] path = new Node[key.length() + 1];
+            path[0] = root;
+            for (int i = 0; i < key.length(); i++) {
+                path[i + 1] = path[i].child(key.charAt(i));
+                if (path[i + 1] == null) {
+                    return null;
+                }
+            }
+            return path;
+        }
+
+        /**
+         * Re-rank from the deepest node up, pruning nodes left empty
+         */
+        private void rankPath(String key, Node[] path) {
+            for (int i = key.length(); i >= 0; i--) {
+                Node node = path[i];
+                if (i > 0 && node.isEmpty()) {
+                    path[i - 1].removeChild(key.charAt(i - 1));
+                } else {
+                    node.rank();
+                }
+            }
+        }
+    }
+}
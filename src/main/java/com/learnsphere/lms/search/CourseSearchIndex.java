@@ -0,0 +1,188 @@
+package com.learnsphere.lms.search;
+
+import com.learnsphere.lms.dto.CourseSummary;
+import com.learnsphere.lms.model.Course;
+import com.learnsphere.lms.repository.CourseRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * In-memory inverted index over course title, description and instructor
+ *
+ * Every term maps to the courses containing it, weighted by field (title over
+ * instructor over description). Terms are kept sorted, so a query term
+ * matches every indexed term it is a prefix of with one range lookup. A course
+ * must match every query term; courses are ranked by the sum of field weight
+ * times IDF over the matched terms, and exact term matches count double.
+ * Results are CourseSummary copies held in the index, so search never touches
+ * the database.
+ *
+ * CourseService keeps the index current for writes on this node; periodic
+ * rebuilds pick up writes made on other nodes.
+ */
+@Component
+public class CourseSearchIndex extends RebuildableCourseIndex<CourseSearchIndex.Index> {
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int INSTRUCTOR_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final double EXACT_MATCH_BOOST = 2.0;
+
+    public CourseSearchIndex(CourseRepository courseRepository) {
+        super(courseRepository, Index::new);
+    }
+
+    /**
+     * Add or replace a course in the index
+     *
+     * @param course the saved course
+     */
+    public void index(Course course) {
+        Document document = Document.of(course);
+        write(index -> index.put(document));
+    }
+
+    /**
+     * Remove a course from the index
+     *
+     * @param courseId the course ID
+     */
+    public void remove(Long courseId) {
+        write(index -> index.remove(courseId));
+    }
+
+    /**
+     * Find courses matching every term of the query, best first
+     * Each query term matches indexed terms it is a prefix of
+     *
+     * @param query the search text
+     * @param limit the maximum number of results
+     * @return matching courses ranked by relevance
+     */
+    public List<CourseSummary> search(String query, int limit) {
+        List<String> terms = Tokenizer.tokenize(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        return read(index -> index.search(terms, limit));
+    }
+
+    /**
+     * Number of indexed courses
+     *
+     * @return the document count
+     */
+    public int size() {
+        return read(index -> index.documents.size());
+    }
+
+    @Override
+    protected void load(Index index, Course course) {
+        index.put(Document.of(course));
+    }
+
+    /**
+     * One indexed course: its summary and weighted terms
+     */
+    private static final class Document {
+
+        final CourseSummary summary;
+        final Map<String, Integer> termWeights;
+
+        private Document(CourseSummary summary, Map<String, Integer> termWeights) {
+            this.summary = summary;
+            this.termWeights = termWeights;
+        }
+
+        static Document of(Course course) {
+            Map<String, Integer> termWeights = new HashMap<>();
+            addTerms(termWeights, course.getTitle(), TITLE_WEIGHT);
+            addTerms(termWeights, course.getInstructorName(), INSTRUCTOR_WEIGHT);
+            addTerms(termWeights, course.getDescription(), DESCRIPTION_WEIGHT);
+            CourseSummary summary = new CourseSummary(course.getId(), course.getTitle(),
+                    course.getInstructorName(), course.getPhotoUrl());
+            return new Document(summary, termWeights);
+        }
+
+        private static void addTerms(Map<String, Integer> termWeights, String text, int weight) {
+            for (String term : Tokenizer.tokenize(text)) {
+                termWeights.merge(term, weight, Integer::sum);
+            }
+        }
+    }
+
+    /**
+     * Postings and documents; not thread-safe on its own
+     */
+    static final class Index {
+
+        // term -> (course id -> weight), sorted for prefix range lookups
+        final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+        final Map<Long, Document> documents = new HashMap<>();
+
+        void put(Document document) {
+            Long id = document.summary.getId();
+            remove(id);
+            documents.put(id, document);
+            document.termWeights.forEach((term, weight) -> postings
+                    .computeIfAbsent(term, key -> new HashMap<>())
+                    .put(id, weight));
+        }
+
+        void remove(Long id) {
+            Document document = documents.remove(id);
+            if (document == null) {
+                return;
+            }
+            for (String term : document.termWeights.keySet()) {
+                Map<Long, Integer> courses = postings.get(term);
+                courses.remove(id);
+                if (courses.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+
+        List<CourseSummary> search(List<String> terms, int limit) {
+            Map<Long, Double> scores = null;
+            for (String term : terms) {
+                Map<Long, Double> termScores = scoreTerm(term);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    // Keep only courses that also match this term
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((id, score) -> score + termScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(limit)
+                    .map(entry -> documents.get(entry.getKey()).summary)
+                    .toList();
+        }
+
+        /**
+         * Score every course containing a term that starts with the query term
+         */
+        private Map<Long, Double> scoreTerm(String term) {
+            Map<Long, Double> scores = new HashMap<>();
+            Map<String, Map<Long, Integer>> matches = postings.subMap(term, true, term + Character.MAX_VALUE, false);
+            matches.forEach((indexedTerm, courses) -> {
+                double idf = Math.log(1.0 + (double) documents.size() / courses.size());
+                double boost = indexedTerm.length() == term.length() ? EXACT_MATCH_BOOST : 1.0;
+                courses.forEach((id, weight) -> scores.merge(id, weight * idf * boost, Double::sum));
+            });
+            return scores;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.learnsphere.lms.search;
+
+import com.learnsphere.lms.model.Course;
+import com.learnsphere.lms.repository.CourseRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Base for in-memory course indexes that CourseService updates incrementally
+ * and that are rebuilt from the database on startup and then periodically
+ *
+ * Reads share a read lock; writes take the write lock. A rebuild loads a new
+ * index without blocking reads. Writes made during the rebuild are replayed
+ * onto the new index before it replaces the old one, so none are lost.
+ *
+ * @param <I> the index structure; it is only touched under the lock
+ */
+abstract class RebuildableCourseIndex<I> {
+
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private final CourseRepository courseRepository;
+    private final Supplier<I> emptyIndex;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private I index;
+    // Writes made while a rebuild is reading the database; non-null only during a rebuild
+    private List<Consumer<I>> pendingWrites;
+
+    protected RebuildableCourseIndex(CourseRepository courseRepository, Supplier<I> emptyIndex) {
+        this.courseRepository = courseRepository;
+        this.emptyIndex = emptyIndex;
+        this.index = emptyIndex.get();
+    }
+
+    /**
+     * Add one course to an index that is being rebuilt
+     */
+    protected abstract void load(I index, Course course);
+
+    /**
+     * Called once every course has been loaded, before pending writes are
+     * replayed; for work that is cheaper done once than per course
+     */
+    protected void loaded(I index) {
+    }
+
+    /**
+     * Rebuild the index from the database
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${search.courses.rebuild-interval:10m}",
+            initialDelayString = "${search.courses.rebuild-interval:10m}")
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingWrites = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        I rebuilt = emptyIndex.get();
+        boolean loaded = false;
+        try {
+            // Keyset pages keep memory bounded and work on every database
+            List<Course> page = courseRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(REBUILD_PAGE_SIZE));
+            while (!page.isEmpty()) {
+                page.forEach(course -> load(rebuilt, course));
+                Long lastId = page.get(page.size() - 1).getId();
+                page = courseRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(REBUILD_PAGE_SIZE));
+            }
+            loaded(rebuilt);
+            loaded = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (loaded) {
+                    pendingWrites.forEach(pending -> pending.accept(rebuilt));
+                    index = rebuilt;
+                }
+                pendingWrites = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Run a query against the current index under the read lock
+     */
+    protected <R> R read(Function<I, R> query) {
+        lock.readLock().lock();
+        try {
+            return query.apply(index);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Apply a change to the current index under the write lock
+     * The change must be idempotent, since a rebuild may replay it onto data
+     * that already includes it
+     */
+    protected void write(Consumer<I> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(index);
+            if (pendingWrites != null) {
+                pendingWrites.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.learnsphere.lms.security;
 
+import com.learnsphere.lms.config.ReplicaRoutingDataSource;
 import com.learnsphere.lms.model.User;
 import com.learnsphere.lms.repository.UserRepository;
 import org.springframework.security.core.GrantedAuthority;
@@ -24,6 +25,8 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     /**
      * Load user by username (email in this case)
+     * Always read from the primary, so a new password, role change or deletion
+     * takes effect without waiting for replicas
      * 
      * @param email the email address (username)
      * @return UserDetails object
@@ -32,7 +35,7 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         // Find user by email
-        User user = userRepository.findByEmail(email)
+        User user = ReplicaRoutingDataSource.onPrimary(() -> userRepository.findByEmail(email))
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
         // Convert user role to GrantedAuthority
@@ -1,5 +1,7 @@
 package com.learnsphere.lms.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,22 +9,38 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+
+    // lms.jwt.filter split by phase: token verification (parse and signature
+    // check, or a verified-token cache hit) and principal loading
+    private final Timer verifyValid;
+    private final Timer verifyInvalid;
+    private final Timer principalFound;
+    private final Timer principalMissing;
 
     // Constructor injection
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, CustomUserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, CustomUserDetailsService userDetailsService,
+            PrincipalCache principalCache, MeterRegistry meterRegistry) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
+        this.verifyValid = phaseTimer(meterRegistry, "verify", "valid");
+        this.verifyInvalid = phaseTimer(meterRegistry, "verify", "invalid");
+        this.principalFound = phaseTimer(meterRegistry, "principal", "found");
+        this.principalMissing = phaseTimer(meterRegistry, "principal", "missing");
     }
 
     /**
@@ -41,28 +59,44 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String authorizationHeader = request.getHeader("Authorization");
 
         String username = null;
-        String jwtToken = null;
+        VerifiedToken token = null;
 
         // Check if Authorization header exists and starts with "Bearer "
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwtToken = authorizationHeader.substring(7); // Extract token after "Bearer "
+            String jwtToken = authorizationHeader.substring(7); // Extract token after "Bearer "
 
+            long start = System.nanoTime();
             try {
-                username = jwtUtil.extractUsername(jwtToken);
+                // Verifies signature and expiry once; the claims are reused below
+                token = jwtUtil.verify(jwtToken);
+                username = token.getSubject();
+                verifyValid.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             } catch (Exception e) {
                 // Token is invalid or expired
+                verifyInvalid.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
                 logger.error("JWT token extraction failed: " + e.getMessage());
             }
         }
 
         // If username is extracted and no authentication is set in SecurityContext
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null
+                && !principalCache.isRevoked(username, token.getIssuedAt(), token.getRole())) {
 
-            // Load user details from database
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            // Load user details from the principal cache (database on a miss)
+            UserDetails userDetails = null;
+            long start = System.nanoTime();
+            try {
+                userDetails = principalCache.getPrincipal(username, token.getRole(),
+                        userDetailsService::loadUserByUsername);
+                principalFound.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            } catch (UsernameNotFoundException e) {
+                // User was deleted after the token was issued
+                principalMissing.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                logger.warn("JWT subject no longer exists: " + username);
+            }
 
-            // Validate token
-            if (jwtUtil.validateToken(jwtToken, userDetails.getUsername())) {
+            // Token is already verified; only check it belongs to the loaded principal
+            if (userDetails != null && username.equals(userDetails.getUsername())) {
 
                 // Create authentication token
                 UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
@@ -82,4 +116,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Continue with the filter chain
         filterChain.doFilter(request, response);
     }
+
+    private static Timer phaseTimer(MeterRegistry meterRegistry, String phase, String outcome) {
+        return Timer.builder("lms.jwt.filter")
+                .description("Time spent in JwtAuthenticationFilter per phase")
+                .tag("phase", phase)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
 }
@@ -1,12 +1,21 @@
 package com.learnsphere.lms.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -15,30 +24,46 @@ import java.util.function.Function;
 @Component
 public class JwtUtil {
 
-    // PRODUCTION: Load from environment variable
-    private final String SECRET_KEY;
     private final long EXPIRATION_TIME;
 
+    // Built once; both are immutable and thread-safe
+    private final Key signingKey;
+    private final JwtParser parser;
+
+    // Recently verified tokens, keyed by SHA-256 of the token string (null when
+    // disabled)
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
     /**
      * Constructor with environment-based configuration
      * 
-     * @param secretKey      JWT secret from environment (default for dev only)
-     * @param expirationTime JWT expiration time in milliseconds
+     * @param secretKey         JWT secret from environment (default for dev only)
+     * @param expirationTime    JWT expiration time in milliseconds
+     * @param verifiedCacheSize maximum number of verified tokens to remember (0
+     *                          disables the cache)
+     * @param verifiedCacheTtl  how long a verified token is remembered
      */
     public JwtUtil(
             @org.springframework.beans.factory.annotation.Value("${jwt.secret:MySecretKeyForJWTTokenGenerationAndValidation2024LMS}") String secretKey,
-            @org.springframework.beans.factory.annotation.Value("${jwt.expiration:36000000}") long expirationTime) {
-        this.SECRET_KEY = secretKey;
+            @org.springframework.beans.factory.annotation.Value("${jwt.expiration:36000000}") long expirationTime,
+            @org.springframework.beans.factory.annotation.Value("${jwt.verified-cache.max-size:10000}") long verifiedCacheSize,
+            @org.springframework.beans.factory.annotation.Value("${jwt.verified-cache.ttl:5m}") Duration verifiedCacheTtl) {
         this.EXPIRATION_TIME = expirationTime;
 
         // Validate secret key length for security
         if (secretKey.length() < 32) {
             throw new IllegalArgumentException("JWT secret key must be at least 32 characters for security");
         }
-    }
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+        this.signingKey = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.verifiedTokens = verifiedCacheSize <= 0 ? null
+                : Caffeine.newBuilder()
+                        .maximumSize(verifiedCacheSize)
+                        .expireAfterWrite(verifiedCacheTtl)
+                        .build();
     }
 
     /**
@@ -67,10 +92,48 @@ public class JwtUtil {
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Verify a token and return its claims
+     * The signature is checked once per distinct token; repeat requests with the
+     * same token are answered from the verified-token cache until the token
+     * expires
+     * 
+     * @param token the JWT token
+     * @return the verified claims
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
+    public VerifiedToken verify(String token) {
+        if (verifiedTokens == null) {
+            return toVerifiedToken(extractAllClaims(token));
+        }
+
+        String key = hash(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(key);
+        if (cached != null) {
+            if (!cached.isExpiredAt(Instant.now())) {
+                return cached;
+            }
+            // Fall through so the parser reports the expiry
+            verifiedTokens.invalidate(key);
+        }
+
+        VerifiedToken verified = toVerifiedToken(extractAllClaims(token));
+        verifiedTokens.put(key, verified);
+        return verified;
+    }
+
+    private static VerifiedToken toVerifiedToken(Claims claims) {
+        return new VerifiedToken(
+                claims.getSubject(),
+                claims.get("role", String.class),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null);
+    }
+
     /**
      * Extract username from token
      * 
@@ -120,21 +183,7 @@ public class JwtUtil {
      * @return all claims
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    /**
-     * Check if token is expired
-     * 
-     * @param token the JWT token
-     * @return true if expired, false otherwise
-     */
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        return parser.parseClaimsJws(token).getBody();
     }
 
     /**
@@ -145,7 +194,21 @@ public class JwtUtil {
      * @return true if valid, false otherwise
      */
     public Boolean validateToken(String token, String username) {
-        final String extractedUsername = extractUsername(token);
-        return (extractedUsername.equals(username) && !isTokenExpired(token));
+        final VerifiedToken verified = verify(token);
+        return (verified.getSubject().equals(username) && !verified.isExpiredAt(Instant.now()));
+    }
+
+    /**
+     * Hash a token for use as a cache key, so raw tokens are never retained
+     */
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hashed = digest.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hashed);
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is required on every Java platform
+            throw new IllegalStateException(e);
+        }
     }
 }
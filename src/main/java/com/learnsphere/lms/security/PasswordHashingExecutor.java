@@ -0,0 +1,74 @@
+package com.learnsphere.lms.security;
+
+import com.learnsphere.lms.exception.TooManyRequestsException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool for BCrypt work (login verification, password hashing)
+ *
+ * BCrypt is deliberately CPU-heavy. Running it on request threads lets a
+ * login storm occupy every Tomcat worker, so cheap reads queue behind it.
+ * Here it runs on a fixed number of threads with a bounded queue. When the
+ * queue is full, submit() fails fast with TooManyRequestsException (429 with
+ * Retry-After) instead of letting the backlog grow.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+
+    /**
+     * @param threads       number of hashing threads (0 = one per CPU core)
+     * @param queueCapacity maximum number of hashing tasks waiting for a thread
+     * @param retryAfter    Retry-After value sent when the queue is full
+     */
+    public PasswordHashingExecutor(
+            @Value("${security.hashing.threads:0}") int threads,
+            @Value("${security.hashing.queue-capacity:200}") int queueCapacity,
+            @Value("${security.hashing.retry-after:2s}") Duration retryAfter) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+    }
+
+    /**
+     * Run a hashing task on the pool
+     *
+     * @param task the task, e.g. an authenticate() call
+     * @return future completed with the task's result
+     * @throws TooManyRequestsException if the queue is full
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            throw new TooManyRequestsException("Too many sign-in attempts in progress, please retry shortly",
+                    retryAfterSeconds);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,147 @@
+package com.learnsphere.lms.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Cache of authenticated principals used by JwtAuthenticationFilter
+ *
+ * In the default mode, UserDetails are cached per email for a bounded time, so
+ * an authenticated request only reaches the database once per TTL window. In
+ * stateless mode the principal is built from the JWT role claim and the
+ * database is never consulted.
+ *
+ * Deleting a user or changing their role calls invalidate(), which evicts the
+ * cached principal and rejects every token issued before that moment. Other
+ * nodes pick up the change when their entry expires, so the TTL is the
+ * revocation window.
+ *
+ * Revocations are node-local. In stateless mode they are the only thing that
+ * cuts off an old role claim, so another node would honour it until the token
+ * expires; stateless mode therefore refuses to start unless single-node is
+ * set.
+ */
+@Component
+public class PrincipalCache {
+
+    private final boolean enabled;
+    private final boolean stateless;
+    private final Cache<String, UserDetails> principals;
+    private final Cache<String, Revocation> revocations;
+    private final Clock clock;
+
+    /**
+     * @param enabled       whether principals are cached at all
+     * @param stateless     build principals from the JWT role claim only
+     * @param singleNode    confirms only one instance serves requests, which
+     *                      stateless mode requires
+     * @param ttl           how long a cached principal stays valid
+     * @param maxSize       maximum number of cached principals
+     * @param tokenLifetime JWT lifetime in milliseconds; revocations are kept
+     *                      this long so every older token stays rejected
+     */
+    @Autowired
+    public PrincipalCache(
+            @Value("${security.principal-cache.enabled:true}") boolean enabled,
+            @Value("${security.principal-cache.stateless:false}") boolean stateless,
+            @Value("${security.principal-cache.single-node:false}") boolean singleNode,
+            @Value("${security.principal-cache.ttl:60s}") Duration ttl,
+            @Value("${security.principal-cache.max-size:10000}") long maxSize,
+            @Value("${jwt.expiration:36000000}") long tokenLifetime) {
+        this(enabled, stateless, singleNode, ttl, maxSize, tokenLifetime, Clock.systemUTC());
+    }
+
+    PrincipalCache(boolean enabled, boolean stateless, boolean singleNode, Duration ttl, long maxSize,
+            long tokenLifetime, Clock clock) {
+        if (stateless && !singleNode) {
+            throw new IllegalStateException("security.principal-cache.stateless requires "
+                    + "security.principal-cache.single-node=true: revocations are node-local, so other "
+                    + "instances would keep honouring revoked role claims until the tokens expire");
+        }
+        this.enabled = enabled;
+        this.stateless = stateless;
+        this.clock = clock;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        // Not size-bounded: dropping a revocation early would re-admit its tokens
+        this.revocations = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(tokenLifetime))
+                .build();
+    }
+
+    /**
+     * Resolve the principal for an authenticated token subject
+     *
+     * @param email  the token subject
+     * @param role   the token role claim (used in stateless mode)
+     * @param loader loads the principal from the database on a cache miss
+     * @return the principal
+     */
+    public UserDetails getPrincipal(String email, String role, Function<String, UserDetails> loader) {
+        if (stateless && role != null) {
+            List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role));
+            // Password is never checked on the token path
+            return new org.springframework.security.core.userdetails.User(email, "", authorities);
+        }
+        if (!enabled) {
+            return loader.apply(email);
+        }
+        return principals.get(email, loader);
+    }
+
+    /**
+     * Check whether a token was issued before its subject was revoked
+     * The iat claim has whole seconds, so a token from the second of the
+     * revocation is only accepted if it already carries the role that was set
+     *
+     * @param email    the token subject
+     * @param issuedAt the token issued-at time
+     * @param role     the token role claim
+     * @return true if the token must be rejected
+     */
+    public boolean isRevoked(String email, Instant issuedAt, String role) {
+        Revocation revocation = revocations.getIfPresent(email);
+        if (revocation == null) {
+            return false;
+        }
+        if (issuedAt == null || issuedAt.isBefore(revocation.second())) {
+            return true;
+        }
+        return !issuedAt.isAfter(revocation.second()) && !Objects.equals(role, revocation.role());
+    }
+
+    /**
+     * Evict a user's cached principal and revoke their existing tokens
+     * Call after deleting a user or changing their role
+     *
+     * @param email the user's email
+     * @param role  the user's new role, or null if the user was deleted
+     */
+    public void invalidate(String email, String role) {
+        principals.invalidate(email);
+        revocations.put(email, new Revocation(clock.instant().truncatedTo(ChronoUnit.SECONDS), role));
+    }
+
+    /**
+     * @param second the revocation time, truncated like the iat claim
+     * @param role   the role tokens issued from then on carry (null: none)
+     */
+    private record Revocation(Instant second, String role) {
+    }
+}
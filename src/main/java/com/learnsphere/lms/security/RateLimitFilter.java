@@ -0,0 +1,134 @@
+package com.learnsphere.lms.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learnsphere.lms.exception.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client rate limiting for /api/**, placed right after
+ * JwtAuthenticationFilter
+ *
+ * Policies by route:
+ * - auth: POST /api/auth/login and /api/users/register, per IP address
+ * (each login costs a BCrypt check)
+ * - catalog: GET /api/courses/all, per JWT subject (full catalog read)
+ * - default: everything else, per JWT subject, or per IP address when
+ * there is no token
+ *
+ * Requests over the limit get 429 with Retry-After and are counted in the
+ * rate.limit.rejected metric. Behind a proxy, set
+ * server.forward-headers-strategy so the IP address is the client's.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final RateLimitPolicy authPolicy;
+    private final RateLimitPolicy catalogPolicy;
+    private final RateLimitPolicy defaultPolicy;
+    private final Map<String, Counter> rejected = new HashMap<>();
+
+    public RateLimitFilter(RateLimiter rateLimiter, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${rate-limit.enabled:true}") boolean enabled,
+            @Value("${rate-limit.auth.capacity:10}") int authCapacity,
+            @Value("${rate-limit.auth.per-minute:20}") int authPerMinute,
+            @Value("${rate-limit.catalog.capacity:20}") int catalogCapacity,
+            @Value("${rate-limit.catalog.per-minute:60}") int catalogPerMinute,
+            @Value("${rate-limit.default.capacity:100}") int defaultCapacity,
+            @Value("${rate-limit.default.per-minute:600}") int defaultPerMinute) {
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.authPolicy = new RateLimitPolicy("auth", authCapacity, authPerMinute);
+        this.catalogPolicy = new RateLimitPolicy("catalog", catalogCapacity, catalogPerMinute);
+        this.defaultPolicy = new RateLimitPolicy("default", defaultCapacity, defaultPerMinute);
+        for (RateLimitPolicy policy : List.of(authPolicy, catalogPolicy, defaultPolicy)) {
+            rejected.put(policy.getName(), Counter.builder("rate.limit.rejected")
+                    .description("Requests rejected by the rate limiter")
+                    .tag("policy", policy.getName())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        RateLimitPolicy policy = policyFor(request);
+        String client = policy == authPolicy ? "ip:" + request.getRemoteAddr() : clientOf(request);
+
+        long waitNanos = rateLimiter.tryAcquire(policy, client);
+        if (waitNanos > 0) {
+            rejected.get(policy.getName()).increment();
+            reject(request, response, waitNanos);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private RateLimitPolicy policyFor(HttpServletRequest request) {
+        String method = request.getMethod();
+        String uri = request.getRequestURI();
+        if (HttpMethod.POST.matches(method) && (uri.equals("/api/auth/login") || uri.equals("/api/users/register"))) {
+            return authPolicy;
+        }
+        if (HttpMethod.GET.matches(method) && uri.equals("/api/courses/all")) {
+            return catalogPolicy;
+        }
+        return defaultPolicy;
+    }
+
+    /**
+     * The JWT subject if the request is authenticated, otherwise the IP address
+     */
+    private static String clientOf(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos)
+            throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                "Too Many Requests",
+                "Rate limit exceeded, please retry shortly",
+                request.getRequestURI());
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+}
@@ -0,0 +1,43 @@
+package com.learnsphere.lms.security;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token-bucket limits for one group of routes
+ * A bucket holds up to capacity tokens and refills at perMinute tokens per
+ * minute; every request takes one token
+ */
+public final class RateLimitPolicy {
+
+    private final String name;
+    private final long intervalNanos;
+    private final long burstNanos;
+
+    /**
+     * @param name      policy name, also the metric tag and bucket key prefix
+     * @param capacity  burst size (requests allowed at once)
+     * @param perMinute sustained requests per minute
+     */
+    public RateLimitPolicy(String name, int capacity, int perMinute) {
+        if (capacity < 1 || perMinute < 1) {
+            throw new IllegalArgumentException("Rate limit '" + name + "' needs a capacity and rate of at least 1");
+        }
+        this.name = name;
+        this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / perMinute;
+        this.burstNanos = intervalNanos * capacity;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // Time one token takes to refill
+    long getIntervalNanos() {
+        return intervalNanos;
+    }
+
+    // Time a drained bucket takes to refill completely
+    long getBurstNanos() {
+        return burstNanos;
+    }
+}
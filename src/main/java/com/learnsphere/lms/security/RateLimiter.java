@@ -0,0 +1,108 @@
+package com.learnsphere.lms.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory token buckets keyed by policy and client
+ *
+ * Each bucket is one AtomicLong holding its theoretical arrival time (the
+ * generic cell rate algorithm, equivalent to a token bucket): a request moves
+ * it forward by one refill interval with a single CAS and is rejected if that
+ * would put it more than a full burst ahead of now. Buckets live in a
+ * ConcurrentHashMap, whose reads take no locks, so checking a limit is a map
+ * lookup plus a CAS with no shared lock. Buckets idle long enough to be full
+ * again are evicted periodically, which bounds memory by recently active
+ * clients.
+ */
+@Component
+public class RateLimiter {
+
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final long idleTimeoutNanos;
+    private final LongSupplier nanoTime;
+
+    /**
+     * @param idleTimeout how long a bucket may go unused before it is evicted
+     */
+    @Autowired
+    public RateLimiter(@Value("${rate-limit.idle-timeout:10m}") Duration idleTimeout) {
+        this(idleTimeout, System::nanoTime);
+    }
+
+    RateLimiter(Duration idleTimeout, LongSupplier nanoTime) {
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Take a token from the client's bucket for a policy
+     *
+     * @param policy the policy for the route
+     * @param client the client key (IP address or JWT subject)
+     * @return 0 if the request may proceed, otherwise the nanoseconds until a
+     *         token is available
+     */
+    public long tryAcquire(RateLimitPolicy policy, String client) {
+        String key = policy.getName() + ':' + client;
+        long now = nanoTime.getAsLong();
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new Bucket(now));
+        }
+        return bucket.tryAcquire(policy, now);
+    }
+
+    /**
+     * Drop buckets that have refilled completely and sat unused
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.idle-timeout:10m}")
+    public void evictIdle() {
+        long now = nanoTime.getAsLong();
+        buckets.values().removeIf(bucket -> bucket.idleFor(now) > idleTimeoutNanos);
+    }
+
+    /**
+     * Number of buckets currently held
+     *
+     * @return the bucket count
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    private static final class Bucket {
+
+        // Time at which the bucket will be full again; at or before now means full
+        private final AtomicLong theoreticalArrival;
+
+        Bucket(long now) {
+            this.theoreticalArrival = new AtomicLong(now);
+        }
+
+        long tryAcquire(RateLimitPolicy policy, long now) {
+            while (true) {
+                long arrival = theoreticalArrival.get();
+                long next = (arrival - now > 0 ? arrival : now) + policy.getIntervalNanos();
+                long wait = next - now - policy.getBurstNanos();
+                if (wait > 0) {
+                    return wait;
+                }
+                if (theoreticalArrival.compareAndSet(arrival, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        long idleFor(long now) {
+            return now - theoreticalArrival.get();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.learnsphere.lms.security;
+
+import java.time.Instant;
+
+/**
+ * Immutable result of verifying a JWT
+ * Produced once per token by JwtUtil.verify() and shared by everything on the
+ * request path that needs the token's claims
+ */
+public final class VerifiedToken {
+
+    private final String subject;
+    private final String role;
+    private final Instant issuedAt;
+    private final Instant expiration;
+
+    public VerifiedToken(String subject, String role, Instant issuedAt, Instant expiration) {
+        this.subject = subject;
+        this.role = role;
+        this.issuedAt = issuedAt;
+        this.expiration = expiration;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public Instant getIssuedAt() {
+        return issuedAt;
+    }
+
+    public Instant getExpiration() {
+        return expiration;
+    }
+
+    /**
+     * Check whether the token has expired at the given instant
+     *
+     * @param now the instant to check against
+     * @return true if expired
+     */
+    public boolean isExpiredAt(Instant now) {
+        return expiration != null && !now.isBefore(expiration);
+    }
+}
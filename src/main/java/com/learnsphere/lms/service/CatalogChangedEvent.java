@@ -0,0 +1,18 @@
+package com.learnsphere.lms.service;
+
+/**
+ * Published after a course write on this node moved the catalog to a new
+ * version
+ */
+public class CatalogChangedEvent {
+
+    private final String version;
+
+    public CatalogChangedEvent(String version) {
+        this.version = version;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,70 @@
+package com.learnsphere.lms.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version of the course catalog held by this node
+ *
+ * The version is bumped by every CourseService write and is part of the
+ * catalog cache key, so a version always names exactly one cached catalog and
+ * can be used as a strong ETag without querying or serializing anything.
+ *
+ * Writes on other nodes are not seen here, so the version also rolls over
+ * when the catalog cache TTL elapses, forcing a fresh load. Versions carry the
+ * node start time, so two nodes (or two restarts) never hand out the same
+ * version for different content.
+ *
+ * Every bump publishes a CatalogChangedEvent, so caches derived from the
+ * catalog can be refreshed ahead of the next request.
+ */
+@Component
+public class CatalogVersion {
+
+    private static final String KEY = "catalog";
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong counter = new AtomicLong();
+    private final Cache<String, String> current;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * @param ttl the catalog cache TTL; the version rolls over this often
+     */
+    public CatalogVersion(@Value("${cache.courses.ttl:10m}") Duration ttl,
+            ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+        this.current = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Get the current catalog version
+     *
+     * @return the version string
+     */
+    public String current() {
+        return current.get(KEY, key -> next());
+    }
+
+    /**
+     * Move to a new catalog version
+     * Call after every committed course write
+     */
+    public void bump() {
+        String version = next();
+        current.put(KEY, version);
+        eventPublisher.publishEvent(new CatalogChangedEvent(version));
+    }
+
+    private String next() {
+        return epoch + "." + counter.incrementAndGet();
+    }
+}
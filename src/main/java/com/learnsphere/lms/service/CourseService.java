@@ -1,48 +1,188 @@
 package com.learnsphere.lms.service;
 
+import com.learnsphere.lms.config.CacheConfig;
+import com.learnsphere.lms.config.ReplicaRoutingDataSource;
+import com.learnsphere.lms.dto.CourseSuggestion;
+import com.learnsphere.lms.dto.CourseSummary;
+import com.learnsphere.lms.dto.CursorPage;
+import com.learnsphere.lms.dto.PopularCourse;
 import com.learnsphere.lms.exception.ResourceNotFoundException;
 import com.learnsphere.lms.model.Course;
 import com.learnsphere.lms.repository.CourseRepository;
+import com.learnsphere.lms.repository.StatelessScanRepository;
+import com.learnsphere.lms.search.CourseAutocomplete;
+import com.learnsphere.lms.search.CourseSearchIndex;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
+@Timed("lms.service")
 @Service
 public class CourseService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int DEFAULT_SEARCH_LIMIT = 20;
+    public static final int MAX_SEARCH_LIMIT = 100;
+    public static final int DEFAULT_SUGGESTION_LIMIT = 8;
+    public static final int DEFAULT_POPULAR_LIMIT = 10;
+    public static final int MAX_POPULAR_LIMIT = 100;
+
     private final CourseRepository courseRepository;
+    private final EntityManager entityManager;
+    private final CatalogVersion catalogVersion;
+    private final CourseSearchIndex searchIndex;
+    private final CourseAutocomplete autocomplete;
+    private final StatelessScanRepository statelessScans;
 
     // Constructor injection
-    public CourseService(CourseRepository courseRepository) {
+    public CourseService(CourseRepository courseRepository, EntityManager entityManager,
+            CatalogVersion catalogVersion, CourseSearchIndex searchIndex, CourseAutocomplete autocomplete,
+            StatelessScanRepository statelessScans) {
         this.courseRepository = courseRepository;
+        this.entityManager = entityManager;
+        this.catalogVersion = catalogVersion;
+        this.searchIndex = searchIndex;
+        this.autocomplete = autocomplete;
+        this.statelessScans = statelessScans;
     }
 
     /**
      * Create a new course
+     * Evicts the cached catalog listings and updates the catalog version and
+     * search indexes once the transaction commits
      * 
      * @param course the course to create
      * @return the saved course
      */
+    @CacheEvict(cacheNames = CacheConfig.COURSE_CATALOG, allEntries = true)
+    @Transactional
     public Course createCourse(Course course) {
-        return courseRepository.save(course);
+        Course savedCourse = courseRepository.save(course);
+        afterCommit(() -> {
+            catalogVersion.bump();
+            searchIndex.index(savedCourse);
+            autocomplete.index(savedCourse);
+        });
+        return savedCourse;
     }
 
     /**
-     * Fetch all courses from the database
+     * Fetch all courses
+     * Served from the catalog cache after the first call for the current
+     * catalog version. Loaded from the primary, since the result is cached
+     * under the version and must include the write that bumped it, through a
+     * stateless session, since the cached courses are never modified
      * 
      * @return list of all courses
      */
+    @Cacheable(cacheNames = CacheConfig.COURSE_CATALOG, key = "'full:' + @catalogVersion.current()")
     public List<Course> getAllCourses() {
-        return courseRepository.findAll();
+        return ReplicaRoutingDataSource.onPrimary(statelessScans::findAllCourses);
+    }
+
+    /**
+     * Fetch summaries of all courses (no description column)
+     * Served from the catalog cache after the first call for the current
+     * catalog version; loaded from the primary like getAllCourses()
+     * 
+     * @return list of course summaries
+     */
+    @Cacheable(cacheNames = CacheConfig.COURSE_CATALOG, key = "'summary:' + @catalogVersion.current()")
+    public List<CourseSummary> getAllCourseSummaries() {
+        return ReplicaRoutingDataSource.onPrimary(courseRepository::findAllSummaries);
+    }
+
+    /**
+     * Fetch one page of courses ordered by id (keyset pagination)
+     * Each page is a single indexed range scan on the primary key, so the cost
+     * does not grow with the page offset
+     * 
+     * @param afterId the id of the last course on the previous page, or null for
+     *                the first page
+     * @param size    the page size (1 to MAX_PAGE_SIZE)
+     * @return the page of courses with the cursor for the next page
+     * @throws IllegalArgumentException if size or afterId is out of range
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Course> getCoursesPage(Long afterId, int size) {
+        validatePageRequest(afterId, size);
+        // Fetch one extra row to find out whether another page exists
+        List<Course> courses = courseRepository.findByIdGreaterThanOrderByIdAsc(
+                afterId == null ? 0L : afterId, Limit.of(size + 1));
+        return toCursorPage(courses, size, Course::getId);
+    }
+
+    /**
+     * Fetch one page of course summaries ordered by id (keyset pagination)
+     * 
+     * @param afterId the id of the last course on the previous page, or null for
+     *                the first page
+     * @param size    the page size (1 to MAX_PAGE_SIZE)
+     * @return the page of course summaries with the cursor for the next page
+     * @throws IllegalArgumentException if size or afterId is out of range
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<CourseSummary> getCourseSummariesPage(Long afterId, int size) {
+        validatePageRequest(afterId, size);
+        List<CourseSummary> summaries = courseRepository.findSummariesAfter(
+                afterId == null ? 0L : afterId, PageRequest.of(0, size + 1));
+        return toCursorPage(summaries, size, CourseSummary::getId);
+    }
+
+    /**
+     * Stream every course to the consumer in id order
+     * Rows are read from the JDBC cursor one at a time and detached after the
+     * consumer has handled them, so memory stays bounded regardless of catalog
+     * size
+     * 
+     * @param consumer receives each course in turn
+     */
+    @Transactional(readOnly = true)
+    public void streamAllCourses(Consumer<Course> consumer) {
+        try (Stream<Course> courses = courseRepository.streamAllOrderedById()) {
+            courses.forEach(course -> {
+                consumer.accept(course);
+                entityManager.detach(course);
+            });
+        }
+    }
+
+    /**
+     * Stream every course summary to the consumer in id order
+     * 
+     * @param consumer receives each course summary in turn
+     */
+    @Transactional(readOnly = true)
+    public void streamAllCourseSummaries(Consumer<CourseSummary> consumer) {
+        try (Stream<CourseSummary> summaries = courseRepository.streamAllSummaries()) {
+            summaries.forEach(consumer);
+        }
     }
 
     /**
      * Fetch a course by its ID
+     * Served from the course cache after the first call
      * 
      * @param id the course ID
      * @return the course if found
      * @throws ResourceNotFoundException if course not found
      */
+    @Cacheable(cacheNames = CacheConfig.COURSES, key = "#id")
     public Course getCourseById(Long id) {
         return courseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Course", "id", id));
@@ -50,12 +190,18 @@ public class CourseService {
 
     /**
      * Update an existing course
+     * Replaces the cached course, evicts the cached catalog listings and
+     * updates the catalog version and search indexes once the transaction
+     * commits
      * 
      * @param id            the course ID to update
      * @param courseDetails the updated course details
      * @return the updated course
      * @throws ResourceNotFoundException if course not found
      */
+    @Caching(put = @CachePut(cacheNames = CacheConfig.COURSES, key = "#id"),
+            evict = @CacheEvict(cacheNames = CacheConfig.COURSE_CATALOG, allEntries = true))
+    @Transactional
     public Course updateCourse(Long id, Course courseDetails) {
         Course course = courseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Course", "id", id));
@@ -63,19 +209,134 @@ public class CourseService {
         course.setTitle(courseDetails.getTitle());
         course.setDescription(courseDetails.getDescription());
         course.setInstructorName(courseDetails.getInstructorName());
-        return courseRepository.save(course);
+        Course savedCourse = courseRepository.save(course);
+        afterCommit(() -> {
+            catalogVersion.bump();
+            searchIndex.index(savedCourse);
+            autocomplete.index(savedCourse);
+        });
+        return savedCourse;
     }
 
     /**
      * Delete a course by its ID
+     * Evicts the cached course and the cached catalog listings and updates
+     * the catalog version and search indexes once the transaction commits
      * 
      * @param id the course ID to delete
      * @throws ResourceNotFoundException if course not found
      */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.COURSES, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.COURSE_CATALOG, allEntries = true)
+    })
+    @Transactional
     public void deleteCourse(Long id) {
         if (!courseRepository.existsById(id)) {
             throw new ResourceNotFoundException("Course", "id", id);
         }
         courseRepository.deleteById(id);
+        afterCommit(() -> {
+            catalogVersion.bump();
+            searchIndex.remove(id);
+            autocomplete.remove(id);
+        });
+    }
+
+    /**
+     * Full-text search over course title, description and instructor
+     * Served from the in-memory search index; never queries the database
+     * 
+     * @param query the search text; every word must match (as a word prefix)
+     * @param limit the maximum number of results (1 to MAX_SEARCH_LIMIT)
+     * @return matching course summaries, most relevant first
+     * @throws IllegalArgumentException if limit is out of range
+     */
+    public List<CourseSummary> searchCourses(String query, int limit) {
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+        return searchIndex.search(query, limit);
+    }
+
+    /**
+     * Typeahead suggestions from course titles and instructor names
+     * Served from the in-memory trie; never queries the database
+     * 
+     * @param prefix the text typed so far
+     * @param limit  the maximum number of suggestions (1 to
+     *               CourseAutocomplete.MAX_SUGGESTIONS)
+     * @return suggestions, most common first
+     * @throws IllegalArgumentException if limit is out of range
+     */
+    public List<CourseSuggestion> suggestCourses(String prefix, int limit) {
+        if (limit < 1 || limit > CourseAutocomplete.MAX_SUGGESTIONS) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + CourseAutocomplete.MAX_SUGGESTIONS);
+        }
+        return autocomplete.suggest(prefix, limit);
+    }
+
+    /**
+     * Get the most enrolled courses with their enrollment counts
+     * Reads the shared enrollment counters through their index, so every
+     * node sees the same committed ranking; never counts enrollments
+     * 
+     * @param k the number of courses (1 to MAX_POPULAR_LIMIT)
+     * @return courses with at least one enrollment, most enrolled first
+     * @throws IllegalArgumentException if k is out of range
+     */
+    @Transactional(readOnly = true)
+    public List<PopularCourse> getPopularCourses(int k) {
+        if (k < 1 || k > MAX_POPULAR_LIMIT) {
+            throw new IllegalArgumentException("k must be between 1 and " + MAX_POPULAR_LIMIT);
+        }
+        return courseRepository.findMostEnrolled(Limit.of(k));
+    }
+
+    /**
+     * Get the current catalog version
+     * Changes whenever the catalog listings may have changed
+     * 
+     * @return the catalog version
+     */
+    public String getCatalogVersion() {
+        return catalogVersion.current();
+    }
+
+    /**
+     * Run work once the current transaction commits, or now outside one, so
+     * a catalog version or index entry never names an uncommitted write
+     */
+    private static void afterCommit(Runnable work) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            work.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                work.run();
+            }
+        });
+    }
+
+    private void validatePageRequest(Long afterId, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (afterId != null && afterId < 0) {
+            throw new IllegalArgumentException("Cursor must not be negative");
+        }
+    }
+
+    /**
+     * Trim a result fetched with size + 1 rows down to one page and derive the
+     * next cursor from the last row kept
+     */
+    private <T> CursorPage<T> toCursorPage(List<T> rows, int size, Function<T, Long> idOf) {
+        boolean hasMore = rows.size() > size;
+        List<T> items = hasMore ? rows.subList(0, size) : rows;
+        Long nextCursor = hasMore ? idOf.apply(items.get(items.size() - 1)) : null;
+        return new CursorPage<>(items, nextCursor, hasMore);
     }
 }
@@ -1,29 +1,79 @@
 package com.learnsphere.lms.service;
 
+import com.learnsphere.lms.config.ReplicaRoutingDataSource;
+import com.learnsphere.lms.dto.BulkResult;
+import com.learnsphere.lms.dto.BulkRowResult;
+import com.learnsphere.lms.dto.CourseSummary;
+import com.learnsphere.lms.dto.DailyEnrollments;
+import com.learnsphere.lms.dto.EnrollmentPair;
+import com.learnsphere.lms.dto.EnrollmentSummary;
 import com.learnsphere.lms.exception.DuplicateEnrollmentException;
+import com.learnsphere.lms.exception.ResourceNotFoundException;
 import com.learnsphere.lms.model.Course;
 import com.learnsphere.lms.model.Enrollment;
 import com.learnsphere.lms.model.User;
+import com.learnsphere.lms.outbox.EnrollmentOutbox;
+import com.learnsphere.lms.repository.CourseRepository;
 import com.learnsphere.lms.repository.EnrollmentRepository;
+import com.learnsphere.lms.repository.EnrollmentStatsRepository;
+import com.learnsphere.lms.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
+@Timed("lms.service")
 @Service
 public class EnrollmentService {
 
+    public static final int MAX_BULK_ROWS = 10000;
+    public static final int DEFAULT_DAILY_DAYS = 30;
+    public static final int MAX_DAILY_DAYS = 366;
+
+    // Rows validated and inserted together; keeps IN lists and batches bounded
+    private static final int BULK_CHUNK_SIZE = 1000;
+
     private final EnrollmentRepository enrollmentRepository;
+    private final UserRepository userRepository;
+    private final CourseRepository courseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EnrollmentOutbox enrollmentOutbox;
+    private final EnrollmentStatsRepository enrollmentStatsRepository;
 
     // Constructor injection
-    public EnrollmentService(EnrollmentRepository enrollmentRepository) {
+    public EnrollmentService(EnrollmentRepository enrollmentRepository,
+            UserRepository userRepository,
+            CourseRepository courseRepository,
+            PlatformTransactionManager transactionManager,
+            EnrollmentOutbox enrollmentOutbox,
+            EnrollmentStatsRepository enrollmentStatsRepository) {
         this.enrollmentRepository = enrollmentRepository;
+        this.userRepository = userRepository;
+        this.courseRepository = courseRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enrollmentOutbox = enrollmentOutbox;
+        this.enrollmentStatsRepository = enrollmentStatsRepository;
     }
 
     /**
      * Enroll a user into a course
-     * Prevents duplicate enrollments
+     * Prevents duplicate enrollments with an indexed existence check; the
+     * (user_id, course_id) unique constraint catches concurrent requests that
+     * both pass the check. The course's enrollment counter and an
+     * EnrollmentEvent in the outbox are written in the same transaction as the
+     * insert; all other follow-up work happens asynchronously
      * 
      * @param user   the user to enroll
      * @param course the course to enroll in
@@ -33,11 +83,7 @@ public class EnrollmentService {
      */
     public Enrollment enrollUser(User user, Course course) {
         // Check if user is already enrolled
-        List<Enrollment> existingEnrollments = enrollmentRepository.findByUserId(user.getId());
-        boolean alreadyEnrolled = existingEnrollments.stream()
-                .anyMatch(e -> e.getCourse().getId().equals(course.getId()));
-
-        if (alreadyEnrolled) {
+        if (enrollmentRepository.existsByUserIdAndCourseId(user.getId(), course.getId())) {
             throw new DuplicateEnrollmentException(user.getId(), course.getId());
         }
 
@@ -47,7 +93,65 @@ public class EnrollmentService {
         enrollment.setCourse(course);
         enrollment.setEnrolledAt(LocalDateTime.now());
 
-        return enrollmentRepository.save(enrollment);
+        try {
+            return transactionTemplate.execute(status -> {
+                Enrollment inserted = enrollmentRepository.save(enrollment);
+                recordEnrollments(List.of(new EnrollmentPair(user.getId(), course.getId())),
+                        inserted.getEnrolledAt());
+                return inserted;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Lost a race with a concurrent request for the same enrollment; the
+            // winner may not have reached a replica yet
+            if (ReplicaRoutingDataSource.onPrimary(
+                    () -> enrollmentRepository.existsByUserIdAndCourseId(user.getId(), course.getId()))) {
+                throw new DuplicateEnrollmentException(user.getId(), course.getId());
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Enroll many (user, course) pairs at once
+     * Rows are processed in chunks: each chunk checks users, courses and
+     * existing enrollments with one IN query each and inserts the valid rows
+     * with one JDBC batch. A failing row never aborts the others; every row gets
+     * its own result
+     * 
+     * @param pairs the (user, course) pairs to enroll
+     * @return per-row results in request order
+     * @throws IllegalArgumentException if more than MAX_BULK_ROWS pairs are given
+     */
+    public BulkResult bulkEnroll(List<EnrollmentPair> pairs) {
+        if (pairs.size() > MAX_BULK_ROWS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_ROWS + " enrollments per request");
+        }
+
+        BulkRowResult[] results = new BulkRowResult[pairs.size()];
+        Set<EnrollmentPair> seen = new HashSet<>();
+        LocalDateTime enrolledAt = LocalDateTime.now();
+        for (int start = 0; start < pairs.size(); start += BULK_CHUNK_SIZE) {
+            int end = Math.min(start + BULK_CHUNK_SIZE, pairs.size());
+            enrollChunk(pairs, start, end, seen, enrolledAt, results);
+        }
+        return new BulkResult(Arrays.asList(results));
+    }
+
+    /**
+     * Get the number of students enrolled in a course
+     * Reads the course's counter; never counts the enrollments
+     * 
+     * @param courseId the course ID
+     * @return the enrollment count
+     * @throws ResourceNotFoundException if course not found
+     */
+    @Transactional(readOnly = true)
+    public long getEnrollmentCount(Long courseId) {
+        Long count = courseRepository.findEnrollmentCount(courseId);
+        if (count == null) {
+            throw new ResourceNotFoundException("Course", "id", courseId);
+        }
+        return count;
     }
 
     /**
@@ -56,11 +160,32 @@ public class EnrollmentService {
      * @param userId the user ID
      * @return list of courses the user is enrolled in
      */
+    @Transactional(readOnly = true)
     public List<Course> getCoursesEnrolledByUser(Long userId) {
-        List<Enrollment> enrollments = enrollmentRepository.findByUserId(userId);
-        return enrollments.stream()
-                .map(Enrollment::getCourse)
-                .collect(Collectors.toList());
+        return enrollmentRepository.findCoursesByUserId(userId);
+    }
+
+    /**
+     * Fetch summaries of all courses enrolled by a user
+     * 
+     * @param userId the user ID
+     * @return list of course summaries the user is enrolled in
+     */
+    @Transactional(readOnly = true)
+    public List<CourseSummary> getCourseSummariesEnrolledByUser(Long userId) {
+        return enrollmentRepository.findCourseSummariesByUserId(userId);
+    }
+
+    /**
+     * Get the version of a user's enrolled courses
+     * One aggregate query over the user's enrollments, without loading them
+     * 
+     * @param userId the user ID
+     * @return the version string
+     */
+    @Transactional(readOnly = true)
+    public String getEnrollmentsVersion(Long userId) {
+        return enrollmentRepository.findEnrollmentsVersionByUserId(userId);
     }
 
     /**
@@ -69,6 +194,7 @@ public class EnrollmentService {
      * @param userId the user ID
      * @return list of enrollments
      */
+    @Transactional(readOnly = true)
     public List<Enrollment> getEnrollmentsByUserId(Long userId) {
         return enrollmentRepository.findByUserId(userId);
     }
@@ -79,7 +205,151 @@ public class EnrollmentService {
      * @param courseId the course ID
      * @return list of enrollments
      */
+    @Transactional(readOnly = true)
     public List<Enrollment> getEnrollmentsByCourseId(Long courseId) {
         return enrollmentRepository.findByCourseId(courseId);
     }
+
+    /**
+     * Fetch the roster of a course as flat rows
+     * One SQL statement regardless of roster size
+     * 
+     * @param courseId the course ID
+     * @return list of enrollment summaries
+     */
+    @Transactional(readOnly = true)
+    public List<EnrollmentSummary> getRosterByCourseId(Long courseId) {
+        return enrollmentRepository.findRosterByCourseId(courseId);
+    }
+
+    /**
+     * Fetch a course's enrollments per day
+     * Built from the outbox in the background, so enrollments from the last
+     * outbox poll interval may not be included yet
+     * 
+     * @param courseId the course ID
+     * @param days     the number of days up to and including today (1 to
+     *                 MAX_DAILY_DAYS)
+     * @return the days with at least one enrollment, oldest first
+     * @throws IllegalArgumentException if days is out of range
+     */
+    @Transactional(readOnly = true)
+    public List<DailyEnrollments> getDailyEnrollments(Long courseId, int days) {
+        if (days < 1 || days > MAX_DAILY_DAYS) {
+            throw new IllegalArgumentException("Days must be between 1 and " + MAX_DAILY_DAYS);
+        }
+        return enrollmentStatsRepository.findByCourseIdFrom(courseId, LocalDate.now().minusDays(days - 1L));
+    }
+
+    /**
+     * Validate and insert rows [start, end) of a bulk enrollment
+     */
+    private void enrollChunk(List<EnrollmentPair> pairs, int start, int end, Set<EnrollmentPair> seen,
+            LocalDateTime enrolledAt, BulkRowResult[] results) {
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> courseIds = new HashSet<>();
+        for (int i = start; i < end; i++) {
+            EnrollmentPair pair = pairs.get(i);
+            if (pair == null || pair.getUserId() == null || pair.getCourseId() == null) {
+                results[i] = new BulkRowResult(i, BulkRowResult.Status.INVALID, "userId and courseId are required");
+            } else {
+                userIds.add(pair.getUserId());
+                courseIds.add(pair.getCourseId());
+            }
+        }
+        if (userIds.isEmpty()) {
+            return;
+        }
+
+        // One query each for users, courses and existing enrollments, on the
+        // primary so users and courses created moments ago are found
+        Set<Long> existingUsers = new HashSet<>(
+                ReplicaRoutingDataSource.onPrimary(() -> userRepository.findExistingIds(userIds)));
+        Set<Long> existingCourses = new HashSet<>(
+                ReplicaRoutingDataSource.onPrimary(() -> courseRepository.findExistingIds(courseIds)));
+        Set<EnrollmentPair> enrolled = existingUsers.isEmpty() || existingCourses.isEmpty()
+                ? Set.of()
+                : new HashSet<>(ReplicaRoutingDataSource.onPrimary(
+                        () -> enrollmentRepository.findExistingPairs(existingUsers, existingCourses)));
+
+        List<EnrollmentPair> toInsert = new ArrayList<>();
+        List<Integer> toInsertIndexes = new ArrayList<>();
+        for (int i = start; i < end; i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            EnrollmentPair pair = pairs.get(i);
+            if (!existingUsers.contains(pair.getUserId())) {
+                results[i] = new BulkRowResult(i, BulkRowResult.Status.NOT_FOUND,
+                        String.format("User not found with id : '%s'", pair.getUserId()));
+            } else if (!existingCourses.contains(pair.getCourseId())) {
+                results[i] = new BulkRowResult(i, BulkRowResult.Status.NOT_FOUND,
+                        String.format("Course not found with id : '%s'", pair.getCourseId()));
+            } else if (enrolled.contains(pair) || !seen.add(pair)) {
+                results[i] = new BulkRowResult(i, BulkRowResult.Status.DUPLICATE,
+                        duplicateMessage(pair));
+            } else {
+                toInsert.add(pair);
+                toInsertIndexes.add(i);
+            }
+        }
+        if (toInsert.isEmpty()) {
+            return;
+        }
+
+        try {
+            // All or nothing, so a failed batch leaves no partial rows, counts or events behind
+            transactionTemplate.executeWithoutResult(status -> {
+                enrollmentRepository.insertAll(toInsert, enrolledAt);
+                recordEnrollments(toInsert, enrolledAt);
+            });
+            for (int i : toInsertIndexes) {
+                results[i] = BulkRowResult.created(i);
+            }
+        } catch (DataIntegrityViolationException e) {
+            // Lost a race with a concurrent enrollment or deletion; retry row by row
+            for (int k = 0; k < toInsert.size(); k++) {
+                results[toInsertIndexes.get(k)] = insertOne(toInsertIndexes.get(k), toInsert.get(k), enrolledAt);
+            }
+        }
+    }
+
+    /**
+     * Insert a single bulk row, reporting a constraint violation as the row's
+     * result
+     */
+    private BulkRowResult insertOne(int index, EnrollmentPair pair, LocalDateTime enrolledAt) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                enrollmentRepository.insertAll(List.of(pair), enrolledAt);
+                recordEnrollments(List.of(pair), enrolledAt);
+            });
+            return BulkRowResult.created(index);
+        } catch (DataIntegrityViolationException e) {
+            if (ReplicaRoutingDataSource.onPrimary(
+                    () -> enrollmentRepository.existsByUserIdAndCourseId(pair.getUserId(), pair.getCourseId()))) {
+                return new BulkRowResult(index, BulkRowResult.Status.DUPLICATE,
+                        duplicateMessage(pair));
+            }
+            return new BulkRowResult(index, BulkRowResult.Status.FAILED,
+                    "User or course no longer exists");
+        }
+    }
+
+    /**
+     * Bump the enrollment counters and write the outbox events for newly
+     * inserted enrollments
+     * Must run in the transaction that inserted them
+     */
+    private void recordEnrollments(List<EnrollmentPair> pairs, LocalDateTime enrolledAt) {
+        Map<Long, Long> deltas = new HashMap<>();
+        pairs.forEach(pair -> deltas.merge(pair.getCourseId(), 1L, Long::sum));
+        deltas.forEach(courseRepository::addToEnrollmentCount);
+        enrollmentOutbox.enrollmentsCreated(pairs, enrolledAt);
+    }
+
+    private static String duplicateMessage(EnrollmentPair pair) {
+        return String.format("User with ID '%s' is already enrolled in course with ID '%s'",
+                pair.getUserId(), pair.getCourseId());
+    }
 }
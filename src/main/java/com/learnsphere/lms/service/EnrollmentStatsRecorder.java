@@ -0,0 +1,48 @@
+package com.learnsphere.lms.service;
+
+import com.learnsphere.lms.dto.DailyEnrollments;
+import com.learnsphere.lms.outbox.EnrollmentEvent;
+import com.learnsphere.lms.outbox.EnrollmentEventListener;
+import com.learnsphere.lms.repository.EnrollmentStatsRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Adds delivered enrollment events to the per-course daily totals
+ *
+ * The upserts join the dispatcher's transaction, which also deletes the
+ * delivered events, so a batch's totals commit exactly when its events leave
+ * the outbox. A redelivered batch is one whose earlier delivery rolled back,
+ * totals included, so no event is ever counted twice.
+ */
+@Component
+public class EnrollmentStatsRecorder implements EnrollmentEventListener {
+
+    private final EnrollmentStatsRepository enrollmentStatsRepository;
+
+    public EnrollmentStatsRecorder(EnrollmentStatsRepository enrollmentStatsRepository) {
+        this.enrollmentStatsRepository = enrollmentStatsRepository;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onEnrollments(List<EnrollmentEvent> events) {
+        // One upsert per course and day; sorted so concurrent dispatchers lock rows in the same order
+        Map<Long, Map<LocalDate, Long>> totals = new TreeMap<>();
+        for (EnrollmentEvent event : events) {
+            totals.computeIfAbsent(event.getCourseId(), key -> new TreeMap<>())
+                    .merge(event.getEnrolledAt().toLocalDate(), 1L, Long::sum);
+        }
+        List<DailyEnrollments> counts = new ArrayList<>();
+        totals.forEach((courseId, days) -> days.forEach(
+                (date, enrollments) -> counts.add(new DailyEnrollments(courseId, date, enrollments))));
+        enrollmentStatsRepository.addAll(counts);
+    }
+}
@@ -0,0 +1,328 @@
+package com.learnsphere.lms.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learnsphere.lms.config.ReplicaRoutingDataSource;
+import com.learnsphere.lms.dto.BulkResult;
+import com.learnsphere.lms.dto.BulkRowResult;
+import com.learnsphere.lms.model.User;
+import com.learnsphere.lms.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+/**
+ * Bulk user import from CSV or NDJSON
+ *
+ * The input is read line by line and handled in chunks, so memory depends on
+ * the chunk size, not on the file size. Each chunk checks for existing emails
+ * with one IN query. It then hashes passwords in parallel on a dedicated,
+ * bounded ForkJoinPool and inserts the new users with one JDBC batch. A bad
+ * row is reported in the results and never aborts the import.
+ */
+@Service
+public class UserImportService {
+
+    private static final int CHUNK_SIZE = 500;
+    private static final Set<String> ROLES = Set.of("ADMIN", "STUDENT");
+    private static final List<String> CSV_COLUMNS = List.of("name", "email", "password", "role");
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ForkJoinPool hashingPool;
+
+    /**
+     * @param parallelism number of threads hashing passwords (0 = one per CPU
+     *                    core)
+     */
+    public UserImportService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+            ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+            @Value("${security.hashing.import-parallelism:0}") int parallelism) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.hashingPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Import users from CSV
+     * The first line is a header naming the columns (name, email, password,
+     * role, in any order; role is optional and defaults to STUDENT). Fields may
+     * be double-quoted; quoted fields cannot span lines
+     *
+     * @param input the CSV text
+     * @return per-row results, indexed by data row
+     * @throws IOException              if the input cannot be read
+     * @throws IllegalArgumentException if the header is missing required
+     *                                  columns
+     */
+    public BulkResult importCsv(Reader input) throws IOException {
+        BufferedReader reader = new BufferedReader(input);
+        String header = reader.readLine();
+        if (header == null) {
+            return new BulkResult(List.of());
+        }
+        Map<String, Integer> columns = parseHeader(header);
+        return importLines(reader, line -> parseCsvRow(line, columns));
+    }
+
+    /**
+     * Import users from NDJSON, one JSON object per line with the fields name,
+     * email, password and role (optional, defaults to STUDENT)
+     *
+     * @param input the NDJSON text
+     * @return per-row results, indexed by non-blank line
+     * @throws IOException if the input cannot be read
+     */
+    public BulkResult importNdjson(Reader input) throws IOException {
+        return importLines(new BufferedReader(input), this::parseJsonRow);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdown();
+    }
+
+    /**
+     * Read rows and import them chunk by chunk
+     */
+    private BulkResult importLines(BufferedReader reader, Function<String, User> parser) throws IOException {
+        List<BulkRowResult> results = new ArrayList<>();
+        Set<String> seenEmails = new HashSet<>();
+        List<User> chunk = new ArrayList<>(CHUNK_SIZE);
+        List<Integer> chunkIndexes = new ArrayList<>(CHUNK_SIZE);
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            int index = results.size();
+            results.add(null);
+            try {
+                User user = parser.apply(line);
+                String error = validate(user);
+                if (error != null) {
+                    results.set(index, new BulkRowResult(index, BulkRowResult.Status.INVALID, error));
+                } else if (!seenEmails.add(emailKey(user.getEmail()))) {
+                    results.set(index, duplicate(index, user.getEmail()));
+                } else {
+                    chunk.add(user);
+                    chunkIndexes.add(index);
+                }
+            } catch (IllegalArgumentException e) {
+                results.set(index, new BulkRowResult(index, BulkRowResult.Status.INVALID, e.getMessage()));
+            }
+
+            if (chunk.size() == CHUNK_SIZE) {
+                importChunk(chunk, chunkIndexes, results);
+                chunk.clear();
+                chunkIndexes.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, chunkIndexes, results);
+        }
+        return new BulkResult(results);
+    }
+
+    /**
+     * Drop already registered emails, hash the rest in parallel and insert them
+     * with one batch
+     */
+    private void importChunk(List<User> chunk, List<Integer> indexes, List<BulkRowResult> results) {
+        Set<String> emails = new HashSet<>();
+        chunk.forEach(user -> emails.add(user.getEmail()));
+        Set<String> existing = new HashSet<>();
+        // On the primary: a replica may not have a registration made moments ago
+        ReplicaRoutingDataSource.onPrimary(() -> userRepository.findExistingEmails(emails))
+                .forEach(email -> existing.add(emailKey(email)));
+
+        List<User> toInsert = new ArrayList<>(chunk.size());
+        List<Integer> toInsertIndexes = new ArrayList<>(chunk.size());
+        for (int k = 0; k < chunk.size(); k++) {
+            User user = chunk.get(k);
+            if (existing.contains(emailKey(user.getEmail()))) {
+                results.set(indexes.get(k), duplicate(indexes.get(k), user.getEmail()));
+            } else {
+                toInsert.add(user);
+                toInsertIndexes.add(indexes.get(k));
+            }
+        }
+        if (toInsert.isEmpty()) {
+            return;
+        }
+
+        hashPasswords(toInsert);
+        try {
+            // All or nothing, so a failed batch leaves no partial rows behind
+            transactionTemplate.executeWithoutResult(status -> userRepository.insertAll(toInsert));
+            for (int index : toInsertIndexes) {
+                results.set(index, BulkRowResult.created(index));
+            }
+        } catch (DataIntegrityViolationException e) {
+            // Lost a race with a concurrent registration; retry row by row
+            for (int k = 0; k < toInsert.size(); k++) {
+                results.set(toInsertIndexes.get(k), insertOne(toInsertIndexes.get(k), toInsert.get(k)));
+            }
+        }
+    }
+
+    /**
+     * Encode every password on the hashing pool
+     * A parallel stream started from inside a ForkJoinPool runs on that pool,
+     * so hashing never spills onto the common pool or request threads
+     */
+    private void hashPasswords(List<User> users) {
+        try {
+            hashingPool.submit(() -> users.parallelStream()
+                    .forEach(user -> user.setPassword(passwordEncoder.encode(user.getPassword()))))
+                    .get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing passwords", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private BulkRowResult insertOne(int index, User user) {
+        try {
+            userRepository.insertAll(List.of(user));
+            return BulkRowResult.created(index);
+        } catch (DataIntegrityViolationException e) {
+            if (ReplicaRoutingDataSource.onPrimary(() -> userRepository.existsByEmail(user.getEmail()))) {
+                return duplicate(index, user.getEmail());
+            }
+            return new BulkRowResult(index, BulkRowResult.Status.FAILED, "Row violates a database constraint");
+        }
+    }
+
+    /**
+     * Check required fields and normalize the role
+     *
+     * @return an error message, or null if the row is valid
+     */
+    private String validate(User user) {
+        if (user.getName() == null || user.getName().isBlank()) {
+            return "name is required";
+        }
+        if (user.getEmail() == null || !user.getEmail().contains("@")) {
+            return "a valid email is required";
+        }
+        if (user.getPassword() == null || user.getPassword().isEmpty()) {
+            return "password is required";
+        }
+        if (user.getRole() == null || user.getRole().isBlank()) {
+            user.setRole("STUDENT");
+        }
+        user.setRole(user.getRole().trim().toUpperCase(Locale.ROOT));
+        if (!ROLES.contains(user.getRole())) {
+            return "role must be ADMIN or STUDENT";
+        }
+        return null;
+    }
+
+    private Map<String, Integer> parseHeader(String header) {
+        List<String> names = splitCsvLine(header);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : CSV_COLUMNS.subList(0, 3)) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header must contain the columns " + CSV_COLUMNS);
+            }
+        }
+        return columns;
+    }
+
+    private User parseCsvRow(String line, Map<String, Integer> columns) {
+        List<String> fields = splitCsvLine(line);
+        Function<String, String> field = name -> {
+            Integer i = columns.get(name);
+            return i == null || i >= fields.size() ? null : fields.get(i);
+        };
+        String email = field.apply("email");
+        return new User(field.apply("name"), email == null ? null : email.trim(), field.apply("password"),
+                field.apply("role"));
+    }
+
+    private User parseJsonRow(String line) {
+        try {
+            User user = objectMapper.readValue(line, User.class);
+            if (user.getEmail() != null) {
+                user.setEmail(user.getEmail().trim());
+            }
+            return user;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    /**
+     * Split one CSV line on commas, honouring double quotes ("" is a literal
+     * quote inside a quoted field)
+     */
+    private static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    // MySQL compares emails case-insensitively, so duplicates are too
+    private static String emailKey(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    private static BulkRowResult duplicate(int index, String email) {
+        return new BulkRowResult(index, BulkRowResult.Status.DUPLICATE,
+                "User with email '" + email + "' already exists");
+    }
+}
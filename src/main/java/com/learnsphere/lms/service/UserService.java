@@ -1,24 +1,43 @@
 package com.learnsphere.lms.service;
 
+import com.learnsphere.lms.config.ReplicaRoutingDataSource;
 import com.learnsphere.lms.exception.ResourceNotFoundException;
 import com.learnsphere.lms.model.User;
+import com.learnsphere.lms.repository.CourseRepository;
+import com.learnsphere.lms.repository.StatelessScanRepository;
 import com.learnsphere.lms.repository.UserRepository;
+import com.learnsphere.lms.security.PrincipalCache;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.Optional;
 
+@Timed("lms.service")
 @Service
 public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
+    private final StatelessScanRepository statelessScans;
+    private final CourseRepository courseRepository;
+    private final TransactionTemplate transactionTemplate;
 
     // Constructor injection
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+            PrincipalCache principalCache, StatelessScanRepository statelessScans,
+            CourseRepository courseRepository, PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.principalCache = principalCache;
+        this.statelessScans = statelessScans;
+        this.courseRepository = courseRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
@@ -35,11 +54,13 @@ public class UserService {
 
     /**
      * Fetch all users from the database
+     * Read through a stateless session, so no user is tracked for dirty
+     * checking
      * 
      * @return list of all users
      */
     public List<User> getAllUsers() {
-        return userRepository.findAll();
+        return statelessScans.findAllUsers();
     }
 
     /**
@@ -48,6 +69,7 @@ public class UserService {
      * @param email the email address to search for
      * @return Optional containing the user if found, empty otherwise
      */
+    @Transactional(readOnly = true)
     public Optional<User> getUserByEmail(String email) {
         return userRepository.findByEmail(email);
     }
@@ -58,6 +80,7 @@ public class UserService {
      * @param id the user ID
      * @return Optional containing the user if found, empty otherwise
      */
+    @Transactional(readOnly = true)
     public Optional<User> getUserById(Long id) {
         return userRepository.findById(id);
     }
@@ -69,32 +92,72 @@ public class UserService {
      * @return the user if found
      * @throws ResourceNotFoundException if user not found
      */
+    @Transactional(readOnly = true)
     public User getUserByIdOrThrow(Long id) {
         return userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
     }
 
+    /**
+     * Fetch a user by their email address (throws exception if not found)
+     * 
+     * @param email the email address to search for
+     * @return the user if found
+     * @throws ResourceNotFoundException if user not found
+     */
+    @Transactional(readOnly = true)
+    public User getUserByEmailOrThrow(String email) {
+        return userRepository.findByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "email", email));
+    }
+
     /**
      * Check if a user exists with the given email
      * 
      * @param email the email address to check
      * @return true if user exists, false otherwise
      */
+    @Transactional(readOnly = true)
     public boolean existsByEmail(String email) {
         return userRepository.existsByEmail(email);
     }
 
+    /**
+     * Change a user's role
+     * Revokes the user's existing tokens so the new role applies immediately
+     * 
+     * @param id   the user ID
+     * @param role the new role
+     * @return the updated user
+     * @throws ResourceNotFoundException if user not found
+     */
+    public User updateUserRole(Long id, String role) {
+        // Read from the primary, so the save never starts from a stale replica row
+        User user = ReplicaRoutingDataSource.onPrimary(() -> getUserByIdOrThrow(id));
+        user.setRole(role);
+        User savedUser = userRepository.save(user);
+        principalCache.invalidate(savedUser.getEmail(), savedUser.getRole());
+        return savedUser;
+    }
+
     /**
      * Delete a user by ID
+     * The user's enrollments are deleted with them and taken off their
+     * courses' enrollment counters in the same transaction. Revokes the
+     * user's existing tokens once it commits
      * 
      * @param id the user ID to delete
      * @throws ResourceNotFoundException if user not found
      */
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new ResourceNotFoundException("User", "id", id);
-        }
-        userRepository.deleteById(id);
+        // A read-write transaction, so the lookup also runs on the primary
+        User user = transactionTemplate.execute(status -> {
+            User found = getUserByIdOrThrow(id);
+            courseRepository.removeEnrollmentsOfUser(id);
+            userRepository.delete(found);
+            return found;
+        });
+        principalCache.invalidate(user.getEmail(), null);
     }
 
     /**
@@ -102,6 +165,7 @@ public class UserService {
      * 
      * @return the number of users
      */
+    @Transactional(readOnly = true)
     public long getUserCount() {
         return userRepository.count();
     }
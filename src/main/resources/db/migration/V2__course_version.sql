@@ -0,0 +1,3 @@
+-- Optimistic locking version, also used as the course ETag
+
+ALTER TABLE courses ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,7 @@
+-- Denormalized enrollment counter kept up to date by the enrollment
+-- transactions, backfilled from the existing enrollments
+
+ALTER TABLE courses ADD COLUMN enrollment_count BIGINT DEFAULT 0 NOT NULL;
+
+UPDATE courses
+SET enrollment_count = (SELECT COUNT(*) FROM enrollments e WHERE e.course_id = courses.id);
@@ -0,0 +1,10 @@
+-- Transactional outbox for enrollment events, drained by OutboxDispatcher
+
+CREATE TABLE outbox_events (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    event_type VARCHAR(64) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    attempts INT DEFAULT 0 NOT NULL,
+    PRIMARY KEY (id)
+);
@@ -0,0 +1,13 @@
+-- Indexes for the per-request queries (checked by QueryPlanTests)
+--
+-- Already covered:
+-- - users.email: uk_users_email (login, registration, import)
+-- - enrollments.user_id: leading column of uk_enrollments_user_course
+--   (a user's enrollments, the enrollment check, bulk duplicate check)
+-- - ids and keyset pages: primary keys
+--
+-- A course's roster filters on course_id and sorts by enrolled_at; this index
+-- serves both and replaces the single-column index MySQL created for the
+-- course_id foreign key.
+
+CREATE INDEX idx_enrollments_course_enrolled_at ON enrollments (course_id, enrolled_at);
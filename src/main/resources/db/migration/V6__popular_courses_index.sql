@@ -0,0 +1,5 @@
+-- GET /api/courses/popular ranks courses by the shared enrollment counter;
+-- this index returns them in ranking order (ties by id), so the query stops
+-- after the requested number of rows instead of sorting every course
+
+CREATE INDEX idx_courses_enrollment_count ON courses (enrollment_count DESC, id);
@@ -0,0 +1,11 @@
+-- Enrollments per course and day, maintained by EnrollmentStatsRecorder from
+-- the outbox; collected from this version on, not backfilled, since events
+-- still in the outbox would then be counted twice
+
+CREATE TABLE course_enrollment_daily (
+    course_id BIGINT NOT NULL,
+    enrollment_date DATE NOT NULL,
+    enrollments BIGINT NOT NULL,
+    PRIMARY KEY (course_id, enrollment_date),
+    CONSTRAINT fk_course_enrollment_daily_course FOREIGN KEY (course_id) REFERENCES courses (id) ON DELETE CASCADE
+);
@@ -1,9 +1,6 @@
 // API Base URL
 const API_BASE_URL = 'http://localhost:8080/api';
 
-// Global variables
-let currentUserId = null;
-
 /**
  * Get JWT token from localStorage
  */
@@ -66,61 +63,21 @@ async function fetchCourses() {
     }
 }
 
-/**
- * Get user ID by email
- */
-async function getUserId() {
-    if (currentUserId) {
-        return currentUserId;
-    }
-    
-    const token = getToken();
-    const email = getUserEmail();
-    
-    try {
-        const response = await fetch(`${API_BASE_URL}/users/all`, {
-            method: 'GET',
-            headers: {
-                'Authorization': `Bearer ${token}`
-            }
-        });
-        
-        if (response.ok) {
-            const users = await response.json();
-            const user = users.find(u => u.email === email);
-            if (user) {
-                currentUserId = user.id;
-                return currentUserId;
-            }
-        } else if (handleAuthError(response.status)) {
-            return null;
-        }
-    } catch (error) {
-        console.error('Error getting user ID:', error);
-    }
-    
-    return null;
-}
-
 /**
  * Enroll user in a course
  */
 async function enrollInCourse(courseId) {
     const token = getToken();
-    const userId = await getUserId();
-    
-    if (!userId) {
-        return { success: false, error: 'User not found' };
-    }
     
     try {
-        const response = await fetch(`${API_BASE_URL}/enrollments/enroll`, {
+        // The server resolves the user from the token
+        const response = await fetch(`${API_BASE_URL}/enrollments/me/enroll`, {
             method: 'POST',
             headers: {
                 'Content-Type': 'application/json',
                 'Authorization': `Bearer ${token}`
             },
-            body: JSON.stringify({ userId, courseId })
+            body: JSON.stringify({ courseId })
         });
         
         if (response.ok) {
@@ -152,7 +109,6 @@ function displayCourses(courses) {
     coursesList.innerHTML = courses.map(course => `
         <div class="course-card">
             <h3>${course.title}</h3>
-            <p>${course.description}</p>
             <p class="instructor">Instructor: ${course.instructorName}</p>
             ${currentUser && currentUser.role === 'STUDENT' ? 
                 `<button onclick="enrollInCourse(${course.id})" class="btn btn-success">Enroll</button>` 
@@ -220,41 +176,16 @@ async function addCourse(e) {
 // Enroll in course (STUDENT only)
 async function enrollInCourse(courseId) {
     const token = localStorage.getItem('token');
-    const email = localStorage.getItem('email');
     
     try {
-        // First, get user ID by email
-        const userResponse = await fetch(`${API_BASE_URL}/users/all`, {
-            method: 'GET',
-            headers: {
-                'Authorization': `Bearer ${token}`
-            }
-        });
-        
-        if (!userResponse.ok) {
-            showError('Failed to get user information');
-            return;
-        }
-        
-        const users = await userResponse.json();
-        const currentUserData = users.find(u => u.email === email);
-        
-        if (!currentUserData) {
-            showError('User not found');
-            return;
-        }
-        
-        // Enroll in course
-        const enrollResponse = await fetch(`${API_BASE_URL}/enrollments/enroll`, {
+        // Enroll the logged-in user; the server resolves the user from the token
+        const enrollResponse = await fetch(`${API_BASE_URL}/enrollments/me/enroll`, {
             method: 'POST',
             headers: {
                 'Content-Type': 'application/json',
                 'Authorization': `Bearer ${token}`
             },
-            body: JSON.stringify({
-                userId: currentUserData.id,
-                courseId: courseId
-            })
+            body: JSON.stringify({ courseId: courseId })
         });
         
         if (enrollResponse.ok) {
@@ -276,26 +207,10 @@ async function enrollInCourse(courseId) {
 // Load student enrollments
 async function loadEnrollments() {
     const token = localStorage.getItem('token');
-    const email = localStorage.getItem('email');
     
     try {
-        // Get user ID
-        const userResponse = await fetch(`${API_BASE_URL}/users/all`, {
-            method: 'GET',
-            headers: {
-                'Authorization': `Bearer ${token}`
-            }
-        });
-        
-        if (!userResponse.ok) return;
-        
-        const users = await userResponse.json();
-        const currentUserData = users.find(u => u.email === email);
-        
-        if (!currentUserData) return;
-        
-        // Get enrolled courses
-        const enrollResponse = await fetch(`${API_BASE_URL}/enrollments/user/${currentUserData.id}`, {
+        // Get enrolled courses of the logged-in user
+        const enrollResponse = await fetch(`${API_BASE_URL}/enrollments/me`, {
             method: 'GET',
             headers: {
                 'Authorization': `Bearer ${token}`
@@ -303,8 +218,8 @@ async function loadEnrollments() {
         });
         
         if (enrollResponse.ok) {
-            const enrolledCourses = await enrollResponse.json();
-            displayEnrollments(enrolledCourses);
+            const result = await enrollResponse.json();
+            displayEnrollments(result.data || result);
         }
     } catch (error) {
         console.error('Error loading enrollments:', error);
@@ -323,7 +238,6 @@ function displayEnrollments(courses) {
     enrollmentsList.innerHTML = courses.map(course => `
         <div class="course-card">
             <h3>${course.title}</h3>
-            <p>${course.description}</p>
             <p class="instructor">Instructor: ${course.instructorName}</p>
         </div>
     `).join('');
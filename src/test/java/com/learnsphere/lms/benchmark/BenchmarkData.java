@@ -0,0 +1,21 @@
+package com.learnsphere.lms.benchmark;
+
+import com.learnsphere.lms.model.Course;
+
+/**
+ * Synthetic data shared by the benchmarks
+ */
+final class BenchmarkData {
+
+    // Roughly the length of a real course description
+    private static final String DESCRIPTION = ("This course covers the fundamentals and practical applications "
+            + "of the subject, with weekly assignments, a midterm project and a final exam. ").repeat(4);
+
+    private BenchmarkData() {
+    }
+
+    static Course course(long id) {
+        return new Course(id, "Course " + id, DESCRIPTION, "Instructor " + (id % 200),
+                "https://cdn.learnsphere.com/courses/" + id + ".jpg");
+    }
+}
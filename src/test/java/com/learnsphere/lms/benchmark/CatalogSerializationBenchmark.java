@@ -0,0 +1,71 @@
+package com.learnsphere.lms.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.learnsphere.lms.dto.ApiResponse;
+import com.learnsphere.lms.dto.CourseSummary;
+import com.learnsphere.lms.model.Course;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the catalog response at different catalog sizes
+ * Uses an ObjectMapper configured the same way Spring Boot configures the one
+ * behind the controllers
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = { "-Xmx2g" })
+public class CatalogSerializationBenchmark {
+
+    @Param({ "100", "1000", "10000", "100000" })
+    private int catalogSize;
+
+    private ObjectWriter writer;
+    private ApiResponse<List<Course>> fullResponse;
+    private ApiResponse<List<CourseSummary>> summaryResponse;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writer();
+
+        List<Course> courses = new ArrayList<>(catalogSize);
+        List<CourseSummary> summaries = new ArrayList<>(catalogSize);
+        for (long id = 1; id <= catalogSize; id++) {
+            Course course = BenchmarkData.course(id);
+            courses.add(course);
+            summaries.add(new CourseSummary(course.getId(), course.getTitle(),
+                    course.getInstructorName(), course.getPhotoUrl()));
+        }
+        fullResponse = ApiResponse.success("Courses retrieved successfully", courses);
+        summaryResponse = ApiResponse.success("Courses retrieved successfully", summaries);
+    }
+
+    @Benchmark
+    public byte[] serializeFullCatalog() throws Exception {
+        return writer.writeValueAsBytes(fullResponse);
+    }
+
+    @Benchmark
+    public byte[] serializeSummaryCatalog() throws Exception {
+        return writer.writeValueAsBytes(summaryResponse);
+    }
+}
@@ -0,0 +1,100 @@
+package com.learnsphere.lms.benchmark;
+
+import com.learnsphere.lms.LmsApplication;
+import com.learnsphere.lms.exception.DuplicateEnrollmentException;
+import com.learnsphere.lms.model.Course;
+import com.learnsphere.lms.model.Enrollment;
+import com.learnsphere.lms.model.User;
+import com.learnsphere.lms.repository.CourseRepository;
+import com.learnsphere.lms.repository.EnrollmentRepository;
+import com.learnsphere.lms.repository.UserRepository;
+import com.learnsphere.lms.service.EnrollmentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Duplicate-enrollment check in EnrollmentService.enrollUser for users with
+ * many enrollments, against the in-memory H2 database of the test profile
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EnrollmentBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    private int enrollmentCount;
+
+    private ConfigurableApplicationContext context;
+    private EnrollmentService enrollmentService;
+    private User user;
+    private Course enrolledCourse;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(LmsApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("logging.level.root=WARN")
+                .run();
+        enrollmentService = context.getBean(EnrollmentService.class);
+
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        CourseRepository courseRepository = context.getBean(CourseRepository.class);
+        EnrollmentRepository enrollmentRepository = context.getBean(EnrollmentRepository.class);
+
+        // Password is never checked here, so skip BCrypt
+        user = userRepository.save(new User("Power User", "power.user@learnsphere.com", "unused", "STUDENT"));
+
+        List<Course> courses = new ArrayList<>(enrollmentCount);
+        for (long i = 1; i <= enrollmentCount; i++) {
+            Course course = BenchmarkData.course(i);
+            course.setId(null);
+            courses.add(course);
+        }
+        courses = courseRepository.saveAll(courses);
+
+        List<Enrollment> enrollments = new ArrayList<>(enrollmentCount);
+        for (Course course : courses) {
+            enrollments.add(new Enrollment(user, course, LocalDateTime.now()));
+        }
+        enrollmentRepository.saveAll(enrollments);
+
+        // Probe the last course so a linear scan has to walk every enrollment
+        enrolledCourse = courses.get(courses.size() - 1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object duplicateEnrollmentCheck() {
+        try {
+            return enrollmentService.enrollUser(user, enrolledCourse);
+        } catch (DuplicateEnrollmentException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.learnsphere.lms.benchmark;
+
+import com.learnsphere.lms.security.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and verification cost on the authenticated request path
+ * validateTokenCached is the steady state for a client reusing its token;
+ * validateTokenUncached is the cost of the first request with a new token
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String SECRET = "BenchmarkSecretKeyForJWTTokenGeneration2024LMS";
+    private static final String EMAIL = "student@learnsphere.com";
+
+    private JwtUtil cachedJwtUtil;
+    private JwtUtil uncachedJwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachedJwtUtil = new JwtUtil(SECRET, 36000000L, 10000, Duration.ofMinutes(5));
+        uncachedJwtUtil = new JwtUtil(SECRET, 36000000L, 0, Duration.ofMinutes(5));
+        token = cachedJwtUtil.generateToken(EMAIL, "STUDENT");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachedJwtUtil.generateToken(EMAIL, "STUDENT");
+    }
+
+    @Benchmark
+    public Boolean validateTokenCached() {
+        return cachedJwtUtil.validateToken(token, EMAIL);
+    }
+
+    @Benchmark
+    public Boolean validateTokenUncached() {
+        return uncachedJwtUtil.validateToken(token, EMAIL);
+    }
+}
@@ -0,0 +1,115 @@
+package com.learnsphere.lms.benchmark;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.learnsphere.lms.dto.ApiResponse;
+import com.learnsphere.lms.dto.CourseSummary;
+import com.learnsphere.lms.model.Course;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encode and decode time of the catalog response in JSON, Smile and CBOR
+ * The mappers are built the way MessageConverterConfig builds them. Payload
+ * sizes, raw and gzipped, are printed once per trial, since JMH only
+ * measures time
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = { "-Xmx2g" })
+public class PayloadFormatBenchmark {
+
+    @Param({ "json", "smile", "cbor" })
+    private String format;
+
+    @Param({ "1000", "10000" })
+    private int catalogSize;
+
+    private ObjectMapper mapper;
+    private JavaType fullType;
+    private JavaType summaryType;
+    private ApiResponse<List<Course>> fullResponse;
+    private ApiResponse<List<CourseSummary>> summaryResponse;
+    private byte[] fullPayload;
+    private byte[] summaryPayload;
+
+    @Setup
+    public void setUp() throws Exception {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        mapper = switch (format) {
+            case "smile" -> builder.factory(new SmileFactory()).build();
+            case "cbor" -> builder.factory(new CBORFactory()).build();
+            default -> builder.build();
+        };
+        fullType = mapper.getTypeFactory().constructParametricType(ApiResponse.class,
+                mapper.getTypeFactory().constructCollectionType(List.class, Course.class));
+        summaryType = mapper.getTypeFactory().constructParametricType(ApiResponse.class,
+                mapper.getTypeFactory().constructCollectionType(List.class, CourseSummary.class));
+
+        List<Course> courses = new ArrayList<>(catalogSize);
+        List<CourseSummary> summaries = new ArrayList<>(catalogSize);
+        for (long id = 1; id <= catalogSize; id++) {
+            Course course = BenchmarkData.course(id);
+            courses.add(course);
+            summaries.add(new CourseSummary(course.getId(), course.getTitle(),
+                    course.getInstructorName(), course.getPhotoUrl()));
+        }
+        fullResponse = ApiResponse.success("Courses retrieved successfully", courses);
+        summaryResponse = ApiResponse.success("Courses retrieved successfully", summaries);
+        fullPayload = mapper.writeValueAsBytes(fullResponse);
+        summaryPayload = mapper.writeValueAsBytes(summaryResponse);
+
+        System.out.printf("%n%s, %d courses: full %d bytes (%d gzipped), summary %d bytes (%d gzipped)%n",
+                format, catalogSize, fullPayload.length, gzippedSize(fullPayload),
+                summaryPayload.length, gzippedSize(summaryPayload));
+    }
+
+    @Benchmark
+    public byte[] encodeFullCatalog() throws Exception {
+        return mapper.writeValueAsBytes(fullResponse);
+    }
+
+    @Benchmark
+    public byte[] encodeSummaryCatalog() throws Exception {
+        return mapper.writeValueAsBytes(summaryResponse);
+    }
+
+    @Benchmark
+    public Object decodeFullCatalog() throws Exception {
+        return mapper.readValue(fullPayload, fullType);
+    }
+
+    @Benchmark
+    public Object decodeSummaryCatalog() throws Exception {
+        return mapper.readValue(summaryPayload, summaryType);
+    }
+
+    private static int gzippedSize(byte[] payload) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(payload);
+        }
+        return out.size();
+    }
+}
@@ -0,0 +1,151 @@
+package com.learnsphere.lms.benchmark;
+
+import com.learnsphere.lms.LmsApplication;
+import com.learnsphere.lms.model.Course;
+import com.learnsphere.lms.model.Enrollment;
+import com.learnsphere.lms.model.User;
+import com.learnsphere.lms.repository.CourseRepository;
+import com.learnsphere.lms.repository.EnrollmentRepository;
+import com.learnsphere.lms.repository.StatelessScanRepository;
+import com.learnsphere.lms.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Large list reads three ways, against the in-memory H2 database of the test
+ * profile (rosters only the first two):
+ * - readWrite: a default transaction, as the services ran before; every
+ * entity is tracked and snapshotted, then checked at flush
+ * - readOnly: a read-only transaction (flush mode MANUAL, entities loaded
+ * read-only without snapshots)
+ * - stateless: StatelessScanRepository, no persistence context at all
+ *
+ * Run with the GC profiler to compare allocation per operation:
+ * -Djmh.args="ReadPathBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = { "-Xmx2g" })
+public class ReadPathBenchmark {
+
+    @Param({ "1000", "10000" })
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private CourseRepository courseRepository;
+    private UserRepository userRepository;
+    private EnrollmentRepository enrollmentRepository;
+    private StatelessScanRepository statelessScans;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+    private Long rosterCourseId;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(LmsApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("logging.level.root=WARN")
+                .run();
+        courseRepository = context.getBean(CourseRepository.class);
+        userRepository = context.getBean(UserRepository.class);
+        enrollmentRepository = context.getBean(EnrollmentRepository.class);
+        statelessScans = context.getBean(StatelessScanRepository.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        List<Course> courses = new ArrayList<>(rows);
+        for (long i = 1; i <= rows; i++) {
+            Course course = BenchmarkData.course(i);
+            course.setId(null);
+            courses.add(course);
+        }
+        courses = courseRepository.saveAll(courses);
+
+        // Password is never checked here, so skip BCrypt
+        List<User> users = new ArrayList<>(rows);
+        for (int i = 1; i <= rows; i++) {
+            users.add(new User("Student " + i, "student" + i + "@learnsphere.com", "unused", "STUDENT"));
+        }
+        users = userRepository.saveAll(users);
+
+        // Every user in one course: the largest roster
+        Course rosterCourse = courses.get(0);
+        List<Enrollment> enrollments = new ArrayList<>(rows);
+        for (User user : users) {
+            enrollments.add(new Enrollment(user, rosterCourse, LocalDateTime.now()));
+        }
+        enrollmentRepository.saveAll(enrollments);
+        rosterCourseId = rosterCourse.getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object coursesReadWrite() {
+        return readWrite.execute(status -> courseRepository.findAll());
+    }
+
+    @Benchmark
+    public Object coursesReadOnly() {
+        return readOnly.execute(status -> courseRepository.findAll());
+    }
+
+    @Benchmark
+    public Object coursesStateless() {
+        return statelessScans.findAllCourses();
+    }
+
+    @Benchmark
+    public Object usersReadWrite() {
+        return readWrite.execute(status -> userRepository.findAll());
+    }
+
+    @Benchmark
+    public Object usersReadOnly() {
+        return readOnly.execute(status -> userRepository.findAll());
+    }
+
+    @Benchmark
+    public Object usersStateless() {
+        return statelessScans.findAllUsers();
+    }
+
+    @Benchmark
+    public Object rosterReadWrite() {
+        return readWrite.execute(status -> enrollmentRepository.findByCourseId(rosterCourseId));
+    }
+
+    @Benchmark
+    public Object rosterReadOnly() {
+        return readOnly.execute(status -> enrollmentRepository.findByCourseId(rosterCourseId));
+    }
+}
@@ -0,0 +1,196 @@
+package com.learnsphere.lms.benchmark;
+
+import com.learnsphere.lms.LmsApplication;
+import com.learnsphere.lms.model.Course;
+import com.learnsphere.lms.model.User;
+import com.learnsphere.lms.repository.CourseRepository;
+import com.learnsphere.lms.repository.UserRepository;
+import com.learnsphere.lms.security.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test: a burst of concurrent slow database requests against the running
+ * app, on Tomcat platform threads versus the virtual profile
+ *
+ * Every request goes through the full JWT security chain to an endpoint that
+ * reads a course in a read-only transaction whose query also runs SLEEP() (an
+ * H2 alias standing in for MySQL's), so each request holds a real Hikari
+ * connection, taken through ConcurrencyLimitedDataSource, for LATENCY_MILLIS.
+ * Both thread settings run with the concurrency limit on and the same
+ * poolSize (spring.datasource.hikari.maximum-pool-size) and permits
+ * (db.concurrency-limit.permits), so a burst takes about
+ * concurrency / min(workers, poolSize, permits) queries, where workers is 200
+ * on platform threads and unbounded on virtual threads. Permits above the pool
+ * leave requests queued on Hikari instead of the semaphore.
+ *
+ * Virtual threads need a Java 21 runtime (build with -P java21); on Java 17
+ * both settings run on platform threads. Other sizes can be passed with -p,
+ * e.g. -Djmh.args="RequestThreadingBenchmark -p poolSize=50 -p permits=25"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class RequestThreadingBenchmark {
+
+    private static final int TOMCAT_THREADS = 200;
+    private static final long LATENCY_MILLIS = 250;
+
+    @Param({ "false", "true" })
+    private boolean virtualThreads;
+
+    @Param({ "25", "400" })
+    private int poolSize;
+
+    @Param({ "25", "400" })
+    private int permits;
+
+    @Param({ "1000" })
+    private int concurrency;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+
+    /**
+     * Body of the H2 SLEEP alias, with MySQL's signature and result
+     *
+     * @param seconds how long to sleep
+     * @return 0, or 1 if interrupted
+     */
+    public static int sleep(double seconds) {
+        try {
+            Thread.sleep((long) (seconds * 1000));
+            return 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 1;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(LmsApplication.class)
+                .profiles(virtualThreads ? new String[] { "test", "virtual" } : new String[] { "test" })
+                .initializers(ctx -> ((GenericApplicationContext) ctx).registerBean("slowCourseRoute",
+                        RouterFunction.class, () -> slowCourseRoute(ctx)))
+                // Arguments, unlike default properties, outrank application.properties
+                // and the profile files
+                .run("--logging.level.root=WARN",
+                        "--server.port=0",
+                        "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "--server.tomcat.accept-count=" + concurrency,
+                        // One client sends the whole burst
+                        "--rate-limit.enabled=false",
+                        // One pool of poolSize is the whole database capacity, behind
+                        // permits for both thread settings
+                        "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                        "--spring.datasource.hikari.minimum-idle=" + poolSize,
+                        "--db.replica.enabled=false",
+                        "--db.concurrency-limit.enabled=true",
+                        "--db.concurrency-limit.permits=" + permits);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS SLEEP FOR '"
+                + RequestThreadingBenchmark.class.getName() + ".sleep'");
+
+        // Password is never checked here, so skip BCrypt
+        User user = context.getBean(UserRepository.class)
+                .save(new User("Load Tester", "load.tester@learnsphere.com", "unused", "STUDENT"));
+        Course course = BenchmarkData.course(1);
+        course.setId(null);
+        course = context.getBean(CourseRepository.class).save(course);
+        String token = context.getBean(JwtUtil.class).generateToken(user.getEmail(), user.getRole());
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/slow/courses/" + course.getId()))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int concurrentSlowRequests() {
+        @SuppressWarnings("unchecked")
+        CompletableFuture<HttpResponse<Void>>[] responses = new CompletableFuture[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            responses[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+        }
+        CompletableFuture.allOf(responses).join();
+
+        int ok = 0;
+        for (CompletableFuture<HttpResponse<Void>> response : responses) {
+            if (response.join().statusCode() == 200) {
+                ok++;
+            }
+        }
+        if (ok != concurrency) {
+            throw new IllegalStateException((concurrency - ok) + " of " + concurrency + " requests failed");
+        }
+        return ok;
+    }
+
+    /**
+     * GET /api/slow/courses/{id}: the course title, read from the database
+     * (not the course cache) in one read-only transaction that holds its
+     * connection for LATENCY_MILLIS
+     */
+    private static RouterFunction<ServerResponse> slowCourseRoute(ConfigurableApplicationContext ctx) {
+        CourseRepository courseRepository = ctx.getBean(CourseRepository.class);
+        JdbcTemplate jdbcTemplate = ctx.getBean(JdbcTemplate.class);
+        TransactionTemplate readOnly = new TransactionTemplate(ctx.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        double seconds = LATENCY_MILLIS / 1000.0;
+
+        return RouterFunctions.route()
+                .GET("/api/slow/courses/{id}", serverRequest -> {
+                    Long id = Long.valueOf(serverRequest.pathVariable("id"));
+                    String title = readOnly.execute(status -> {
+                        jdbcTemplate.queryForObject("SELECT SLEEP(?)", Integer.class, seconds);
+                        return courseRepository.findById(id).orElseThrow().getTitle();
+                    });
+                    return ServerResponse.ok().body(title);
+                })
+                .build();
+    }
+}
@@ -0,0 +1,142 @@
+package com.learnsphere.lms.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Routes against two separate in-memory databases, each holding a row that
+ * names it, so every read shows which pool served it
+ */
+class ReplicaRoutingDataSourceTests {
+
+    private static final Duration CHECK_INTERVAL = Duration.ofMillis(20);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private HikariDataSource primaryPool;
+    private HikariDataSource replicaPool;
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        primaryPool = pool("primary");
+        replicaPool = pool("replica");
+        new JdbcTemplate(replicaPool).execute("CREATE TABLE replica_lag (seconds DOUBLE)");
+        new JdbcTemplate(replicaPool).execute("INSERT INTO replica_lag VALUES (0)");
+
+        routing = new ReplicaRoutingDataSource(primaryPool, List.of(replicaPool), Duration.ofMinutes(1),
+                "SELECT seconds FROM replica_lag", Duration.ofSeconds(5), CHECK_INTERVAL, meterRegistry);
+        jdbcTemplate = new JdbcTemplate(routing);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        // The replica is unused until its first check passes
+        await().atMost(Duration.ofSeconds(5)).until(() -> "replica".equals(readOnlyServer()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        routing.close();
+    }
+
+    @Test
+    void readOnlyTransactionsReadFromTheReplica() {
+        double before = routed("replica");
+
+        assertEquals("replica", readOnlyServer());
+        assertEquals(before + 1, routed("replica"));
+    }
+
+    @Test
+    void readWriteTransactionsUseThePrimary() {
+        double before = routed("primary");
+
+        assertEquals("primary", readWrite.execute(status -> server()));
+        assertEquals(before + 1, routed("primary"));
+    }
+
+    @Test
+    void clientsReadTheirOwnWritesFromThePrimary() {
+        authenticate("alice@learnsphere.com");
+        readWrite.executeWithoutResult(status -> server());
+
+        assertEquals("primary", readOnlyServer());
+        assertEquals(1, routed("sticky"));
+
+        // Other clients still read from the replica
+        authenticate("bob@learnsphere.com");
+        assertEquals("replica", readOnlyServer());
+    }
+
+    @Test
+    void pinnedWorkReadsFromThePrimary() {
+        assertEquals("primary", ReplicaRoutingDataSource.onPrimary(this::readOnlyServer));
+        assertEquals("primary", readOnly.execute(status -> ReplicaRoutingDataSource.onPrimary(this::server)));
+
+        // The pin ends with the work
+        assertEquals("replica", readOnlyServer());
+    }
+
+    @Test
+    void laggingReplicaFallsBackToThePrimary() {
+        new JdbcTemplate(replicaPool).update("UPDATE replica_lag SET seconds = 60");
+        await().atMost(Duration.ofSeconds(5)).until(() -> "primary".equals(readOnlyServer()));
+        double fallbacks = routed("fallback");
+
+        assertEquals("primary", readOnlyServer());
+        assertEquals(fallbacks + 1, routed("fallback"));
+
+        new JdbcTemplate(replicaPool).update("UPDATE replica_lag SET seconds = 0");
+        await().atMost(Duration.ofSeconds(5)).until(() -> "replica".equals(readOnlyServer()));
+    }
+
+    private String readOnlyServer() {
+        return readOnly.execute(status -> server());
+    }
+
+    private String server() {
+        return jdbcTemplate.queryForObject("SELECT name FROM server", String.class);
+    }
+
+    private double routed(String route) {
+        return meterRegistry.get("db.routing").tag("route", route).counter().count();
+    }
+
+    private static void authenticate(String email) {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(email, null, List.of()));
+    }
+
+    private static HikariDataSource pool(String name) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl("jdbc:h2:mem:" + name + "-" + UUID.randomUUID());
+        pool.setMaximumPoolSize(2);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(pool);
+        jdbcTemplate.execute("CREATE TABLE server (name VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO server VALUES (?)", name);
+        return pool;
+    }
+}
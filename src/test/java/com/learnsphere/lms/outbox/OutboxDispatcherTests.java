@@ -0,0 +1,75 @@
+package com.learnsphere.lms.outbox;
+
+import com.learnsphere.lms.dto.DailyEnrollments;
+import com.learnsphere.lms.dto.EnrollmentPair;
+import com.learnsphere.lms.model.Course;
+import com.learnsphere.lms.model.User;
+import com.learnsphere.lms.repository.CourseRepository;
+import com.learnsphere.lms.repository.OutboxEventRepository;
+import com.learnsphere.lms.repository.UserRepository;
+import com.learnsphere.lms.service.EnrollmentService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Enrollments reach the daily totals through the outbox; the test profile
+ * leaves draining it to the test
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class OutboxDispatcherTests {
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void enrollmentsAreCountedPerDayOnce() {
+        Course course = courseRepository.save(new Course("Outbox Basics", "Events", "Ada Lovelace"));
+        List<User> users = userRepository.saveAll(List.of(
+                new User("Student 1", "outbox-1@learnsphere.com", "unused", "STUDENT"),
+                new User("Student 2", "outbox-2@learnsphere.com", "unused", "STUDENT"),
+                new User("Student 3", "outbox-3@learnsphere.com", "unused", "STUDENT")));
+        double deliveredBefore = delivered();
+
+        enrollmentService.enrollUser(users.get(0), course);
+        enrollmentService.bulkEnroll(List.of(
+                new EnrollmentPair(users.get(1).getId(), course.getId()),
+                new EnrollmentPair(users.get(2).getId(), course.getId())));
+
+        outboxDispatcher.dispatch();
+
+        assertEquals(0, outboxEventRepository.count());
+        assertEquals(deliveredBefore + 3, delivered());
+        List<DailyEnrollments> daily = enrollmentService.getDailyEnrollments(course.getId(), 1);
+        assertEquals(1, daily.size());
+        assertEquals(LocalDate.now(), daily.get(0).getDate());
+        assertEquals(3, daily.get(0).getEnrollments());
+    }
+
+    private double delivered() {
+        return meterRegistry.get("outbox.events.delivered").counter().count();
+    }
+}
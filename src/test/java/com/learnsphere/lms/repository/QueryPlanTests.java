@@ -0,0 +1,253 @@
+package com.learnsphere.lms.repository;
+
+import com.learnsphere.lms.dto.EnrollmentPair;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Query plan regression test
+ *
+ * Runs each per-request repository query against the schema built by the
+ * Flyway migrations, records the SQL Hibernate sends and fails if H2's
+ * EXPLAIN for it reads a table in full, either as a table scan or as an
+ * index walked without a condition. H2 does not plan exactly like
+ * MySQL, but a query without a usable index scans on both, so dropping an
+ * index or writing a query the indexes cannot serve shows up here.
+ *
+ * The outbox batch lock is not listed: it reads the oldest rows in primary
+ * key order and stops at the batch size.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTests {
+
+    private static final RecordingInspector RECORDER = new RecordingInspector();
+
+    // H2 annotates each table access as /* schema.index: condition */; with
+    // no condition (or as schema.table.tableScan) every row is read
+    private static final Pattern FULL_SCAN = Pattern.compile("/\\* [\\w\"]+\\.[^:*]+ \\*/");
+
+    private static final String MARKER = "plan-test";
+    private static final int USERS = 500;
+    private static final int COURSES = 100;
+    private static final int COURSES_PER_USER = 5;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private List<Long> userIds;
+    private List<Long> courseIds;
+
+    /**
+     * Enough rows that scanning costs H2 more than an index lookup
+     */
+    @BeforeAll
+    void seed() {
+        List<Object[]> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            users.add(new Object[] { "Student " + i, email(i), "unused", "STUDENT" });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (name, email, password, role) VALUES (?, ?, ?, ?)", users);
+
+        List<Object[]> courses = new ArrayList<>(COURSES);
+        for (int i = 0; i < COURSES; i++) {
+            courses.add(new Object[] { MARKER + " course " + i });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO courses (title, version, enrollment_count) VALUES (?, 0, 0)", courses);
+
+        userIds = jdbcTemplate.queryForList("SELECT id FROM users WHERE email LIKE ? ORDER BY id", Long.class,
+                MARKER + "%");
+        courseIds = jdbcTemplate.queryForList("SELECT id FROM courses WHERE title LIKE ? ORDER BY id", Long.class,
+                MARKER + "%");
+
+        List<EnrollmentPair> pairs = new ArrayList<>(USERS * COURSES_PER_USER);
+        for (int i = 0; i < userIds.size(); i++) {
+            for (int j = 0; j < COURSES_PER_USER; j++) {
+                pairs.add(new EnrollmentPair(userIds.get(i), courseIds.get((i + j) % courseIds.size())));
+            }
+        }
+        enrollmentRepository.insertAll(pairs, LocalDateTime.now());
+
+        // Refresh the statistics H2 plans with
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM enrollments WHERE user_id IN (SELECT id FROM users WHERE email LIKE ?)",
+                MARKER + "%");
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE ?", MARKER + "%");
+        jdbcTemplate.update("DELETE FROM courses WHERE title LIKE ?", MARKER + "%");
+    }
+
+    @TestFactory
+    Stream<DynamicTest> hotQueriesUseIndexes() {
+        Long userId = userIds.get(0);
+        Long courseId = courseIds.get(0);
+        List<Long> someUsers = userIds.subList(0, 10);
+        List<Long> someCourses = courseIds.subList(0, 10);
+
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("UserRepository.findByEmail", () -> userRepository.findByEmail(email(1)));
+        queries.put("UserRepository.existsByEmail", () -> userRepository.existsByEmail(email(1)));
+        queries.put("UserRepository.findExistingIds", () -> userRepository.findExistingIds(someUsers));
+        queries.put("UserRepository.findExistingEmails",
+                () -> userRepository.findExistingEmails(List.of(email(1), email(2))));
+
+        queries.put("CourseRepository.findByIdGreaterThanOrderByIdAsc",
+                () -> courseRepository.findByIdGreaterThanOrderByIdAsc(courseId, Limit.of(20)));
+        queries.put("CourseRepository.findSummariesAfter",
+                () -> courseRepository.findSummariesAfter(courseId, PageRequest.of(0, 20)));
+        queries.put("CourseRepository.findExistingIds", () -> courseRepository.findExistingIds(someCourses));
+        queries.put("CourseRepository.findEnrollmentCount", () -> courseRepository.findEnrollmentCount(courseId));
+        queries.put("CourseRepository.findEnrollmentCounts", () -> courseRepository.findEnrollmentCounts(someCourses));
+        queries.put("CourseRepository.findMostEnrolled", () -> courseRepository.findMostEnrolled(Limit.of(10)));
+        queries.put("CourseRepository.removeEnrollmentsOfUser",
+                () -> courseRepository.removeEnrollmentsOfUser(userId));
+
+        queries.put("EnrollmentRepository.findByUserId", () -> enrollmentRepository.findByUserId(userId));
+        queries.put("EnrollmentRepository.findByCourseId", () -> enrollmentRepository.findByCourseId(courseId));
+        queries.put("EnrollmentRepository.findCoursesByUserId",
+                () -> enrollmentRepository.findCoursesByUserId(userId));
+        queries.put("EnrollmentRepository.findRosterByCourseId",
+                () -> enrollmentRepository.findRosterByCourseId(courseId));
+        queries.put("EnrollmentRepository.existsByUserIdAndCourseId",
+                () -> enrollmentRepository.existsByUserIdAndCourseId(userId, courseId));
+        queries.put("EnrollmentRepository.findCourseSummariesByUserId",
+                () -> enrollmentRepository.findCourseSummariesByUserId(userId));
+        queries.put("EnrollmentRepository.findEnrollmentsVersionByUserId",
+                () -> enrollmentRepository.findEnrollmentsVersionByUserId(userId));
+        queries.put("EnrollmentRepository.findExistingPairs",
+                () -> enrollmentRepository.findExistingPairs(someUsers, someCourses));
+
+        queries.put("OutboxEventRepository.lockById", () -> outboxEventRepository.lockById(1L, 5));
+
+        return queries.entrySet().stream()
+                .map(query -> DynamicTest.dynamicTest(query.getKey(),
+                        () -> assertNoFullScan(query.getKey(), query.getValue())));
+    }
+
+    private void assertNoFullScan(String name, Runnable query) throws SQLException {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<String> statements = RECORDER.record(() -> transaction.executeWithoutResult(status -> query.run()));
+        assertFalse(statements.isEmpty(), () -> name + ": no SQL was recorded");
+        for (String sql : statements) {
+            String plan = explain(sql);
+            assertFalse(FULL_SCAN.matcher(plan).find(), () -> name + ": full scan in plan:\n" + plan);
+        }
+    }
+
+    /**
+     * H2's plan for a statement
+     * The plan is chosen when the statement is prepared, so the parameters are
+     * bound to NULL just to satisfy the driver
+     */
+    private String explain(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            int parameters = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                statement.setObject(i, null);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getString(1);
+            }
+        }
+    }
+
+    private static String email(int i) {
+        return MARKER + "-" + i + "@learnsphere.com";
+    }
+
+    /**
+     * Registers the recorder with Hibernate for this test's context
+     */
+    @TestConfiguration
+    static class RecordingConfig {
+
+        @Bean
+        HibernatePropertiesCustomizer recordStatements() {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, RECORDER);
+        }
+    }
+
+    /**
+     * Records the SQL Hibernate prepares on the current thread while
+     * record() runs
+     */
+    private static final class RecordingInspector implements StatementInspector {
+
+        private final ThreadLocal<List<String>> recorded = new ThreadLocal<>();
+
+        List<String> record(Runnable work) {
+            List<String> statements = new ArrayList<>();
+            recorded.set(statements);
+            try {
+                work.run();
+            } finally {
+                recorded.remove();
+            }
+            return statements;
+        }
+
+        @Override
+        public String inspect(String sql) {
+            List<String> statements = recorded.get();
+            if (statements != null) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.learnsphere.lms.search;
+
+import com.learnsphere.lms.dto.CourseSuggestion;
+import com.learnsphere.lms.model.Course;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CourseAutocompleteTests {
+
+    // Only rebuilds read the repository
+    private final CourseAutocomplete autocomplete = new CourseAutocomplete(null);
+
+    @BeforeEach
+    void setUp() {
+        autocomplete.index(course(1L, "Java Basics", "Ada Lovelace"));
+        autocomplete.index(course(2L, "Java Basics", "Alan Turing"));
+        autocomplete.index(course(3L, "Advanced Java", "Ada Lovelace"));
+        autocomplete.index(course(4L, "JavaScript Essentials", "Jane Doe"));
+    }
+
+    @Test
+    void mostCommonFirstThenAlphabetical() {
+        assertEquals(List.of("Java Basics", "Advanced Java", "Jane Doe", "JavaScript Essentials"),
+                texts(autocomplete.suggest("ja", 10)));
+    }
+
+    @Test
+    void suggestionsStopAtTheLimit() {
+        assertEquals(List.of("Java Basics", "Advanced Java"), texts(autocomplete.suggest("ja", 2)));
+
+        for (long id = 10; id < 30; id++) {
+            autocomplete.index(course(id, "Course " + id, "Instructor " + id));
+        }
+        assertEquals(CourseAutocomplete.MAX_SUGGESTIONS, autocomplete.suggest("course", 50).size());
+    }
+
+    @Test
+    void sharedTextsCountTheirCourses() {
+        List<CourseSuggestion> suggestions = autocomplete.suggest("ada", 10);
+
+        assertEquals(1, suggestions.size());
+        assertEquals(CourseSuggestion.Type.INSTRUCTOR, suggestions.get(0).getType());
+        assertEquals(2, suggestions.get(0).getCourseCount());
+        assertNull(suggestions.get(0).getCourseId());
+        assertEquals(3L, autocomplete.suggest("advanced", 10).get(0).getCourseId());
+    }
+
+    @Test
+    void laterWordsMatchAndPrefixesAreMultiWord() {
+        assertEquals(List.of("Java Basics"), texts(autocomplete.suggest("bas", 10)));
+        assertEquals(List.of("Advanced Java"), texts(autocomplete.suggest("advanced ja", 10)));
+        assertTrue(autocomplete.suggest("asics", 10).isEmpty());
+    }
+
+    @Test
+    void removalAndReindexingReRank() {
+        autocomplete.remove(2L);
+        autocomplete.index(course(4L, "Rust Essentials", "Jane Doe"));
+
+        assertEquals(List.of("Advanced Java", "Jane Doe", "Java Basics"), texts(autocomplete.suggest("ja", 10)));
+        assertEquals(1L, autocomplete.suggest("java basics", 10).get(0).getCourseId());
+        assertTrue(autocomplete.suggest("turing", 10).isEmpty());
+    }
+
+    private static Course course(Long id, String title, String instructor) {
+        return new Course(id, title, null, instructor, null);
+    }
+
+    private static List<String> texts(List<CourseSuggestion> suggestions) {
+        return suggestions.stream().map(CourseSuggestion::getText).toList();
+    }
+}
@@ -0,0 +1,80 @@
+package com.learnsphere.lms.search;
+
+import com.learnsphere.lms.dto.CourseSummary;
+import com.learnsphere.lms.model.Course;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CourseSearchIndexTests {
+
+    // Only rebuilds read the repository
+    private final CourseSearchIndex index = new CourseSearchIndex(null);
+
+    @BeforeEach
+    void setUp() {
+        index.index(new Course(1L, "Java Basics", "Variables, loops and classes", "Ada Lovelace", null));
+        index.index(new Course(2L, "Advanced Java", "Generics and concurrency", "Alan Turing", null));
+        index.index(new Course(3L, "Python for Data Science", "Pandas and plotting", "Ada Lovelace", null));
+    }
+
+    @Test
+    void everyQueryWordMustMatchAsAPrefix() {
+        assertEquals(List.of(2L), ids(index.search("adv jav", 10)));
+        assertEquals(List.of(1L, 3L), ids(index.search("ada love", 10)));
+        assertEquals(List.of(3L), ids(index.search("ada pyth", 10)));
+        assertTrue(index.search("java pyth", 10).isEmpty());
+    }
+
+    @Test
+    void wordsMatchOnlyFromTheirStart() {
+        assertTrue(index.search("ava", 10).isEmpty());
+    }
+
+    @Test
+    void titleMatchesOutrankDescriptionMatches() {
+        index.index(new Course(4L, "Concurrency in Practice", "Threads and locks", "Brian Goetz", null));
+
+        assertEquals(List.of(4L, 2L), ids(index.search("concurrency", 10)));
+    }
+
+    @Test
+    void exactMatchesOutrankLongerWords() {
+        index.index(new Course(4L, "Data", "Tables", "Edgar Codd", null));
+        index.index(new Course(5L, "Databases", "Tables", "Edgar Codd", null));
+
+        assertEquals(List.of(4L, 5L), ids(index.search("data tables", 10)));
+    }
+
+    @Test
+    void reindexingDropsTheOldTerms() {
+        index.index(new Course(1L, "Kotlin Basics", "Variables, loops and classes", "Ada Lovelace", null));
+
+        assertEquals(List.of(2L), ids(index.search("java", 10)));
+        assertEquals(List.of(1L), ids(index.search("kot", 10)));
+        assertEquals("Kotlin Basics", index.search("kotlin", 10).get(0).getTitle());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void removedCoursesAreNotFound() {
+        index.remove(2L);
+
+        assertEquals(List.of(1L), ids(index.search("java", 10)));
+        assertTrue(index.search("turing", 10).isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void resultsStopAtTheLimit() {
+        assertEquals(1, index.search("a", 1).size());
+    }
+
+    private static List<Long> ids(List<CourseSummary> results) {
+        return results.stream().map(CourseSummary::getId).toList();
+    }
+}
@@ -0,0 +1,67 @@
+package com.learnsphere.lms.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrincipalCacheTests {
+
+    private static final String EMAIL = "student@learnsphere.com";
+    // Mid-second, as Instant.now() usually is; iat claims are whole seconds
+    private static final Instant REVOKED = Instant.parse("2026-01-01T10:00:00.600Z");
+    private static final Instant REVOKED_SECOND = Instant.parse("2026-01-01T10:00:00Z");
+
+    private final PrincipalCache cache = new PrincipalCache(true, false, false, Duration.ofSeconds(60), 100,
+            Duration.ofHours(10).toMillis(), Clock.fixed(REVOKED, ZoneOffset.UTC));
+
+    @Test
+    void statelessModeRequiresSingleNode() {
+        assertThrows(IllegalStateException.class, () -> new PrincipalCache(true, true, false,
+                Duration.ofSeconds(60), 100, 1000, Clock.systemUTC()));
+        new PrincipalCache(true, true, true, Duration.ofSeconds(60), 100, 1000, Clock.systemUTC());
+    }
+
+    @Test
+    void tokensWithoutRevocationAreAccepted() {
+        assertFalse(cache.isRevoked(EMAIL, REVOKED_SECOND.minusSeconds(60), "STUDENT"));
+    }
+
+    @Test
+    void roleChangeRevokesEarlierTokens() {
+        cache.invalidate(EMAIL, "ADMIN");
+
+        assertTrue(cache.isRevoked(EMAIL, REVOKED_SECOND.minusSeconds(1), "STUDENT"));
+        assertTrue(cache.isRevoked(EMAIL, REVOKED_SECOND.minusSeconds(1), "ADMIN"));
+        assertTrue(cache.isRevoked(EMAIL, null, "ADMIN"));
+    }
+
+    @Test
+    void roleChangeKeepsTokensIssuedInTheSameSecondWithTheNewRole() {
+        cache.invalidate(EMAIL, "ADMIN");
+
+        assertFalse(cache.isRevoked(EMAIL, REVOKED_SECOND, "ADMIN"));
+        assertTrue(cache.isRevoked(EMAIL, REVOKED_SECOND, "STUDENT"));
+    }
+
+    @Test
+    void tokensIssuedAfterTheRevocationSecondAreAccepted() {
+        cache.invalidate(EMAIL, "ADMIN");
+
+        assertFalse(cache.isRevoked(EMAIL, REVOKED_SECOND.plusSeconds(1), "ADMIN"));
+    }
+
+    @Test
+    void deletionRevokesEveryTokenUpToTheRevocationSecond() {
+        cache.invalidate(EMAIL, null);
+
+        assertTrue(cache.isRevoked(EMAIL, REVOKED_SECOND, "STUDENT"));
+        assertTrue(cache.isRevoked(EMAIL, REVOKED_SECOND.minusSeconds(1), "STUDENT"));
+    }
+}
@@ -0,0 +1,101 @@
+package com.learnsphere.lms.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RateLimiterTests {
+
+    private static final String CLIENT = "203.0.113.7";
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    // Burst of 3, one token back every second
+    private final RateLimitPolicy policy = new RateLimitPolicy("login", 3, 60);
+    private final AtomicLong now = new AtomicLong(1_000 * SECOND);
+    private final RateLimiter rateLimiter = new RateLimiter(Duration.ofMinutes(1), now::get);
+
+    @Test
+    void fullBucketAllowsTheBurstThenRejects() {
+        assertEquals(0, rateLimiter.tryAcquire(policy, CLIENT));
+        assertEquals(0, rateLimiter.tryAcquire(policy, CLIENT));
+        assertEquals(0, rateLimiter.tryAcquire(policy, CLIENT));
+
+        assertEquals(SECOND, rateLimiter.tryAcquire(policy, CLIENT));
+    }
+
+    @Test
+    void rejectionsDoNotTakeTokens() {
+        drain();
+
+        assertEquals(SECOND, rateLimiter.tryAcquire(policy, CLIENT));
+        assertEquals(SECOND, rateLimiter.tryAcquire(policy, CLIENT));
+    }
+
+    @Test
+    void tokensRefillOnePerInterval() {
+        drain();
+
+        now.addAndGet(SECOND / 4);
+        assertEquals(3 * SECOND / 4, rateLimiter.tryAcquire(policy, CLIENT));
+
+        now.addAndGet(3 * SECOND / 4);
+        assertEquals(0, rateLimiter.tryAcquire(policy, CLIENT));
+        assertEquals(SECOND, rateLimiter.tryAcquire(policy, CLIENT));
+    }
+
+    @Test
+    void idleBucketsRefillOnlyToCapacity() {
+        drain();
+
+        now.addAndGet(60 * SECOND);
+        drain();
+        assertEquals(SECOND, rateLimiter.tryAcquire(policy, CLIENT));
+    }
+
+    @Test
+    void clientsAndPoliciesHaveSeparateBuckets() {
+        drain();
+
+        assertEquals(0, rateLimiter.tryAcquire(policy, "198.51.100.2"));
+        assertEquals(0, rateLimiter.tryAcquire(new RateLimitPolicy("api", 3, 60), CLIENT));
+        assertEquals(3, rateLimiter.size());
+    }
+
+    @Test
+    void worksAcrossNanoTimeOverflow() {
+        now.set(Long.MAX_VALUE - SECOND);
+        drain();
+        assertEquals(SECOND, rateLimiter.tryAcquire(policy, CLIENT));
+
+        now.addAndGet(2 * SECOND);
+        assertEquals(0, rateLimiter.tryAcquire(policy, CLIENT));
+        assertEquals(0, rateLimiter.tryAcquire(policy, CLIENT));
+        assertEquals(SECOND, rateLimiter.tryAcquire(policy, CLIENT));
+    }
+
+    @Test
+    void evictsOnlyBucketsIdlePastTheTimeout() {
+        drain();
+        now.addAndGet(30 * SECOND);
+        rateLimiter.tryAcquire(policy, "198.51.100.2");
+
+        // The drained bucket was full again 3s after draining, so it has been idle for 32s
+        now.addAndGet(5 * SECOND);
+        rateLimiter.evictIdle();
+        assertEquals(2, rateLimiter.size());
+
+        now.addAndGet(30 * SECOND);
+        rateLimiter.evictIdle();
+        assertEquals(1, rateLimiter.size());
+    }
+
+    private void drain() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, rateLimiter.tryAcquire(policy, CLIENT));
+        }
+    }
+}